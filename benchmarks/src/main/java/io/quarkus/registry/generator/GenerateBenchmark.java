@@ -0,0 +1,83 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.ExtensionCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of a large registry, end to end and stage by stage. Files are written in memory, so the
+ * results do not depend on the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GenerateBenchmark {
+
+    @Param("500")
+    int platformReleases;
+
+    @Param("300")
+    int coreVersions;
+
+    @Param("10000")
+    int extensions;
+
+    private List<ExtensionCatalog> catalogs;
+
+    private List<Extension> extensionInputs;
+
+    private RegistryGenerator generator;
+
+    @Setup
+    public void setup() {
+        RegistryFixtures fixtures = new RegistryFixtures(coreVersions, 42);
+        // Built once, so only the ingestion and the generation are measured, always with the same inputs
+        catalogs = fixtures.platformReleases(platformReleases);
+        extensionInputs = fixtures.extensions(extensions);
+        generator = RegistryFixtures.generator(RegistryOutput.inMemory(), catalogs, extensionInputs);
+    }
+
+    @Benchmark
+    public Object generate() throws IOException {
+        // A new generator, since the ingestion of the catalogs is part of the generation
+        return RegistryFixtures.generator(RegistryOutput.inMemory(), catalogs, extensionInputs)
+                .generate();
+    }
+
+    @Benchmark
+    public void repositoryMetadata() throws IOException {
+        generator.generateStage(GenerationStage.REPOSITORY_METADATA);
+    }
+
+    @Benchmark
+    public void config() throws IOException {
+        generator.generateStage(GenerationStage.CONFIG);
+    }
+
+    @Benchmark
+    public void platforms() throws IOException {
+        generator.generateStage(GenerationStage.PLATFORMS);
+    }
+
+    @Benchmark
+    public void nonPlatformExtensions() throws IOException {
+        generator.generateStage(GenerationStage.NON_PLATFORM_EXTENSIONS);
+    }
+}
@@ -0,0 +1,54 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the SHA-1 checksum of contents the size of the generated files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+
+    @Param({ "1024", "65536", "4194304" })
+    int size;
+
+    private byte[] bytes;
+
+    private String string;
+
+    @Setup
+    public void setup() {
+        bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'a');
+        string = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String sha1Bytes() {
+        return HashUtil.sha1(bytes);
+    }
+
+    @Benchmark
+    public String sha1String() throws IOException {
+        return HashUtil.sha1(string);
+    }
+}
@@ -0,0 +1,59 @@
+package io.quarkus.registry.generator;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.maven.ArtifactCoords;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation and the serialization of a <code>maven-metadata.xml</code> listing every Quarkus version
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataBenchmark {
+
+    @Param("300")
+    int coreVersions;
+
+    private final ArtifactCoords artifact = new ArtifactCoords("io.quarkus.registry", "quarkus-non-platform-extensions",
+            "1.0-SNAPSHOT");
+
+    private final Date now = new Date();
+
+    private List<String> versions;
+
+    private Metadata metadata;
+
+    @Setup
+    public void setup() {
+        versions = new RegistryFixtures(coreVersions, 42).getCoreVersions();
+        metadata = MetadataGenerator.generateMetadata(artifact, now, versions);
+    }
+
+    @Benchmark
+    public Metadata generateMetadata() {
+        return MetadataGenerator.generateMetadata(artifact, now, versions);
+    }
+
+    @Benchmark
+    public String toXml() {
+        return MetadataGenerator.toString(metadata);
+    }
+}
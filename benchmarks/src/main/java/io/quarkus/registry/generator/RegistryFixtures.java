@@ -0,0 +1,140 @@
+package io.quarkus.registry.generator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.ExtensionCatalog;
+import io.quarkus.registry.catalog.json.JsonExtension;
+import io.quarkus.registry.catalog.json.JsonExtensionCatalog;
+
+/**
+ * Builds synthetic registries offline. The same scale and seed always give the same fixtures, each method draws from its
+ * own generator seeded the same way on every call.
+ */
+final class RegistryFixtures {
+
+    private static final String[] PLATFORM_KEYS = { "io.quarkus.platform", "com.redhat.quarkus.platform",
+            "io.example.platform" };
+
+    private static final String[] QUALIFIERS = { "Final", "Final", "Final", "CR1", "Alpha1" };
+
+    private static final int MEMBERS_PER_RELEASE = 8;
+
+    private final long seed;
+
+    private final List<String> coreVersions;
+
+    /**
+     * @param coreVersions the number of distinct Quarkus core versions
+     * @param seed the seed of the pseudo random choices
+     */
+    RegistryFixtures(int coreVersions, long seed) {
+        this.seed = seed;
+        this.coreVersions = coreVersions(coreVersions);
+    }
+
+    /**
+     * @return the Quarkus core versions, from oldest to newest
+     */
+    List<String> getCoreVersions() {
+        return coreVersions;
+    }
+
+    /**
+     * Builds platform release catalogs spread over the core versions and the platform keys, without extensions
+     *
+     * @param count the number of platform releases
+     * @return the platform release catalogs
+     */
+    List<ExtensionCatalog> platformReleases(int count) {
+        Random random = new Random(seed + 1);
+        List<ExtensionCatalog> catalogs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String platformKey = PLATFORM_KEYS[i % PLATFORM_KEYS.length];
+            String coreVersion = coreVersions.get(random.nextInt(coreVersions.size()));
+            // Several releases of the same platform may be based on the same core version
+            String version = coreVersion + "-" + String.format("%05d", i);
+            List<String> members = new ArrayList<>(MEMBERS_PER_RELEASE);
+            for (int m = 0; m < MEMBERS_PER_RELEASE; m++) {
+                members.add(platformKey + ":quarkus-member-" + m + "-bom::pom:" + version);
+            }
+            Map<String, Object> platformRelease = new LinkedHashMap<>();
+            platformRelease.put("platform-key", platformKey);
+            platformRelease.put("stream", Version.toStreamId(coreVersion));
+            platformRelease.put("version", version);
+            platformRelease.put("members", members);
+
+            JsonExtensionCatalog catalog = new JsonExtensionCatalog();
+            catalog.setId(new ArtifactCoords(platformKey, "quarkus-bom-quarkus-platform-descriptor", version, "json",
+                    version).toString());
+            catalog.setBom(ArtifactCoords.pom(platformKey, "quarkus-bom", version));
+            catalog.setQuarkusCoreVersion(coreVersion);
+            catalog.setUpstreamQuarkusCoreVersion(coreVersion);
+            catalog.setPlatform(true);
+            catalog.setMetadata(Map.of("platform-release", platformRelease));
+            catalogs.add(catalog);
+        }
+        return catalogs;
+    }
+
+    /**
+     * Builds non-platform extensions, each built with one of the core versions
+     *
+     * @param count the number of extensions
+     * @return the extensions
+     */
+    List<Extension> extensions(int count) {
+        Random random = new Random(seed + 2);
+        List<Extension> extensions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "extension-" + i;
+            JsonExtension extension = new JsonExtension();
+            extension.setArtifact(ArtifactCoords.jar("io.quarkiverse." + name, "quarkus-" + name,
+                    random.nextInt(5) + "." + random.nextInt(20) + "." + random.nextInt(10)));
+            extension.setName("Quarkus " + name);
+            extension.setDescription("A synthetic extension used to measure the generation of large registries");
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put(CompatibilityIndex.BUILT_WITH_QUARKUS_CORE,
+                    coreVersions.get(random.nextInt(coreVersions.size())));
+            metadata.put("keywords", List.of(name, "synthetic", "benchmark"));
+            metadata.put("categories", List.of("category-" + random.nextInt(20)));
+            metadata.put("status", "stable");
+            extension.setMetadata(metadata);
+            extensions.add(extension);
+        }
+        return extensions;
+    }
+
+    /**
+     * Builds a registry generator fed with the given fixtures, which are not modified
+     *
+     * @param output where the registry is written
+     * @param platformReleases the platform release catalogs
+     * @param extensions the non-platform extensions
+     * @return the generator, ready to generate
+     */
+    static RegistryGenerator generator(RegistryOutput output, List<ExtensionCatalog> platformReleases,
+            List<Extension> extensions) {
+        RegistryGenerator generator = new RegistryGenerator(output);
+        platformReleases.forEach(generator::add);
+        extensions.forEach(generator::add);
+        return generator;
+    }
+
+    private List<String> coreVersions(int count) {
+        Random random = new Random(seed);
+        List<String> versions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int major = 1 + i / 100;
+            int minor = i / 10 % 10;
+            int micro = i % 10;
+            versions.add(major + "." + minor + "." + micro + "." + QUALIFIERS[random.nextInt(QUALIFIERS.length)]);
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,68 @@
+package io.quarkus.registry.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the sorting and the formatting of Quarkus versions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionBenchmark {
+
+    @Param("300")
+    int coreVersions;
+
+    private List<String> versions;
+
+    @Setup
+    public void setup() {
+        versions = new RegistryFixtures(coreVersions, 42).getCoreVersions();
+    }
+
+    @Benchmark
+    public List<String> sortByQualifier() {
+        List<String> sorted = new ArrayList<>(versions);
+        sorted.sort(Version.QUALIFIER_REVERSED_COMPARATOR);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<String> sortByVersion() {
+        List<String> sorted = new ArrayList<>(versions);
+        sorted.sort(Version.VERSION_COMPARATOR);
+        return sorted;
+    }
+
+    @Benchmark
+    public void toSortable(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(Version.toSortable(version));
+        }
+    }
+
+    @Benchmark
+    public void toStreamId(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(Version.toStreamId(version));
+        }
+    }
+}
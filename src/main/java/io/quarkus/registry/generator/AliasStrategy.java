@@ -0,0 +1,22 @@
+package io.quarkus.registry.generator;
+
+/**
+ * How the <code>1.0-SNAPSHOT</code> alias files are created from the timestamped artifacts
+ */
+public enum AliasStrategy {
+
+    /**
+     * Copy the bytes of the timestamped artifact
+     */
+    COPY,
+
+    /**
+     * Create a hard link to the timestamped artifact, falling back to {@link #COPY} if not supported
+     */
+    HARDLINK,
+
+    /**
+     * Create a relative symbolic link to the timestamped artifact, falling back to {@link #COPY} if not supported
+     */
+    SYMLINK
+}
@@ -0,0 +1,333 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.ExtensionCatalog;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.catalog.json.JsonExtension;
+import io.quarkus.registry.catalog.json.JsonExtensionCatalog;
+import io.quarkus.registry.config.json.RegistriesConfigMapperHelper;
+
+/**
+ * Fetches platform catalogs and extension descriptors from a Maven repository.
+ * <p>
+ * Downloads share a keep-alive HTTP client and run on a bounded pool. When a cache directory is set, the downloaded
+ * files are stored by content checksum, and fetched again with a conditional request (<code>If-None-Match</code>,
+ * <code>If-Modified-Since</code>) that only transfers them if they changed. The cached files are used as is when the
+ * repository cannot be reached, so a warm cache works offline.
+ * <p>
+ * <code>file:</code> repositories are read directly, so a local directory tree in the Maven layout can stand in for
+ * Maven Central.
+ */
+public final class CatalogFetcher implements Closeable {
+
+    public static final URI MAVEN_CENTRAL = URI.create("https://repo1.maven.org/maven2/");
+
+    private static final String EXTENSION_DESCRIPTOR = "META-INF/quarkus-extension.yaml";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Pattern SHA1 = Pattern.compile("[0-9a-f]{40}");
+
+    private final URI repository;
+
+    private final Path cacheDir;
+
+    private final ExecutorService pool;
+
+    private final HttpClient client;
+
+    /**
+     * @param repository the root URI of the Maven repository, eg. {@link #MAVEN_CENTRAL} or a <code>file:</code> URI
+     * @param cacheDir the cache directory, <code>null</code> to disable the cache
+     * @param parallelism the maximum number of concurrent downloads
+     */
+    public CatalogFetcher(URI repository, Path cacheDir, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        String root = repository.toString();
+        this.repository = root.endsWith("/") ? repository : URI.create(root + '/');
+        this.cacheDir = cacheDir;
+        this.pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * @param catalog the coordinates of the catalog JSON, eg.
+     *        <code>io.quarkus.platform:quarkus-bom-quarkus-platform-descriptor:2.1.1.Final:json:2.1.1.Final</code>
+     * @return the catalog
+     * @throws IOException if the catalog could not be fetched or parsed
+     */
+    public ExtensionCatalog fetchExtensionCatalog(ArtifactCoords catalog) throws IOException {
+        byte[] bytes = fetch(catalog);
+        return JsonCatalogMapperHelper.deserialize(new ByteArrayInputStream(bytes), JsonExtensionCatalog.class);
+    }
+
+    /**
+     * @param extension the coordinates of the extension runtime jar
+     * @return the extension, read from the <code>META-INF/quarkus-extension.yaml</code> of the jar
+     * @throws IOException if the jar could not be fetched or has no extension descriptor
+     */
+    public Extension fetchExtension(ArtifactCoords extension) throws IOException {
+        byte[] jar = fetch(extension);
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(jar))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (EXTENSION_DESCRIPTOR.equals(entry.getName())) {
+                    return RegistriesConfigMapperHelper.yamlMapper().readValue(in, JsonExtension.class);
+                }
+            }
+        }
+        throw new IOException("No " + EXTENSION_DESCRIPTOR + " found in " + extension);
+    }
+
+    /**
+     * Fetches the given catalogs concurrently
+     *
+     * @param catalogs the coordinates of the catalogs
+     * @return the catalogs, in the same order
+     * @throws IOException the failure of the first catalog that could not be fetched
+     */
+    public List<ExtensionCatalog> fetchExtensionCatalogs(List<ArtifactCoords> catalogs) throws IOException {
+        return fetchAll(catalogs, this::fetchExtensionCatalog);
+    }
+
+    /**
+     * Fetches the given extensions concurrently
+     *
+     * @param extensions the coordinates of the extension runtime jars
+     * @return the extensions, in the same order
+     * @throws IOException the failure of the first extension that could not be fetched
+     */
+    public List<Extension> fetchExtensions(List<ArtifactCoords> extensions) throws IOException {
+        return fetchAll(extensions, this::fetchExtension);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private <T> List<T> fetchAll(List<ArtifactCoords> artifacts, Fetch<T> fetch) throws IOException {
+        List<CompletableFuture<T>> futures = new ArrayList<>(artifacts.size());
+        for (ArtifactCoords artifact : artifacts) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetch.fetch(artifact);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, pool));
+        }
+        List<T> results = new ArrayList<>(artifacts.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                // Do not start the fetches still queued, their results would be discarded
+                for (CompletableFuture<T> other : futures) {
+                    other.cancel(false);
+                }
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the content of the artifact file
+     */
+    byte[] fetch(ArtifactCoords artifact) throws IOException {
+        StringBuilder path = new StringBuilder(artifact.getGroupId().replace('.', '/'))
+                .append('/').append(artifact.getArtifactId())
+                .append('/').append(artifact.getVersion())
+                .append('/').append(artifact.getArtifactId()).append('-').append(artifact.getVersion());
+        if (artifact.getClassifier() != null && !artifact.getClassifier().isEmpty()) {
+            path.append('-').append(artifact.getClassifier());
+        }
+        path.append('.').append(artifact.getType());
+        return fetch(repository.resolve(path.toString()));
+    }
+
+    private byte[] fetch(URI uri) throws IOException {
+        if ("file".equals(uri.getScheme())) {
+            return Files.readAllBytes(Path.of(uri));
+        }
+        Properties ref = cacheDir == null ? null : readRef(uri);
+        byte[] cached = ref == null ? null : readObject(ref.getProperty("sha1"));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT);
+        // Only revalidate a cached copy that is intact, otherwise fetch it again unconditionally
+        if (cached != null) {
+            if (ref.getProperty("etag") != null) {
+                request.header("If-None-Match", ref.getProperty("etag"));
+            }
+            if (ref.getProperty("last-modified") != null) {
+                request.header("If-Modified-Since", ref.getProperty("last-modified"));
+            }
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while fetching " + uri);
+            ex.initCause(e);
+            throw ex;
+        } catch (IOException e) {
+            if (cached != null) {
+                // The repository cannot be reached, use the cached copy
+                return cached;
+            }
+            throw e;
+        }
+        if (response.statusCode() == 304 && cached != null) {
+            return cached;
+        }
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(uri.toString());
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Could not fetch " + uri + ": HTTP " + response.statusCode());
+        }
+        byte[] content = response.body();
+        if (cacheDir != null) {
+            store(uri, content, response);
+        }
+        return content;
+    }
+
+    /**
+     * Stores the content by checksum, then points the reference of the URI to it
+     */
+    private void store(URI uri, byte[] content, HttpResponse<?> response) throws IOException {
+        String sha1 = HashUtil.sha1(content);
+        Path object = object(sha1);
+        if (!Files.exists(object)) {
+            Files.createDirectories(object.getParent());
+            write(object, content);
+        }
+        Properties ref = new Properties();
+        ref.setProperty("uri", uri.toString());
+        ref.setProperty("sha1", sha1);
+        response.headers().firstValue("ETag").ifPresent(etag -> ref.setProperty("etag", etag));
+        response.headers().firstValue("Last-Modified")
+                .ifPresent(lastModified -> ref.setProperty("last-modified", lastModified));
+        Path refFile = ref(uri);
+        Files.createDirectories(refFile.getParent());
+        Path temp = Files.createTempFile(refFile.getParent(), refFile.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ref.store(out, null);
+            }
+            move(temp, refFile);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Properties readRef(URI uri) throws IOException {
+        Path refFile = ref(uri);
+        if (!Files.exists(refFile)) {
+            return null;
+        }
+        Properties ref = new Properties();
+        try (InputStream in = Files.newInputStream(refFile)) {
+            ref.load(in);
+        }
+        String sha1 = ref.getProperty("sha1");
+        return sha1 == null || !SHA1.matcher(sha1).matches() ? null : ref;
+    }
+
+    /**
+     * @return the content of the object, or <code>null</code> if it is missing or corrupted
+     */
+    private byte[] readObject(String sha1) throws IOException {
+        Path object = object(sha1);
+        byte[] content;
+        try {
+            content = Files.readAllBytes(object);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!HashUtil.sha1(content).equals(sha1)) {
+            // Deleted so the next download stores it again
+            Files.deleteIfExists(object);
+            return null;
+        }
+        return content;
+    }
+
+    private Path ref(URI uri) throws IOException {
+        return cacheDir.resolve("refs").resolve(HashUtil.sha1(uri.toString()));
+    }
+
+    private Path object(String sha1) {
+        return cacheDir.resolve("objects").resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+    /**
+     * Writes a file through a temporary file, so concurrent fetches never read a partial file
+     */
+    private static void write(Path file, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            move(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fetch<T> {
+        T fetch(ArtifactCoords artifact) throws IOException;
+    }
+}
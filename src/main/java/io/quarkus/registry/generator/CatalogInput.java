@@ -0,0 +1,108 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.catalog.json.JsonExtension;
+import io.quarkus.registry.config.json.RegistriesConfigMapperHelper;
+
+/**
+ * An input file of the generator: a platform release catalog or an extension descriptor.
+ * <p>
+ * JSON files are read as platform release catalogs, or as extensions if they have no platform release metadata. YAML
+ * files are read as extensions, like the <code>quarkus-extension.yaml</code> of the extension jars.
+ */
+final class CatalogInput {
+
+    private final PlatformReleaseInfo platformRelease;
+
+    private final Extension extension;
+
+    private CatalogInput(PlatformReleaseInfo platformRelease, Extension extension) {
+        this.platformRelease = platformRelease;
+        this.extension = extension;
+    }
+
+    /**
+     * @param file a file
+     * @return true if the file name has the extension of an input file
+     */
+    static boolean isInput(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".json") || isYaml(name);
+    }
+
+    static CatalogInput of(PlatformReleaseInfo platformRelease) {
+        return new CatalogInput(platformRelease, null);
+    }
+
+    static CatalogInput of(Extension extension) {
+        return new CatalogInput(null, extension);
+    }
+
+    static CatalogInput read(Path file) throws IOException {
+        return read(file, () -> Files.newInputStream(file));
+    }
+
+    /**
+     * @param file the file the content comes from, its name tells its format
+     * @param content opens the content, possibly several times
+     */
+    static CatalogInput read(Path file, Source content) throws IOException {
+        JsonExtension extension;
+        if (isYaml(file.getFileName().toString())) {
+            try (InputStream in = content.open()) {
+                extension = RegistriesConfigMapperHelper.yamlMapper().readValue(in, JsonExtension.class);
+            }
+        } else {
+            try (InputStream in = content.open()) {
+                return of(PlatformReleaseInfo.read(in));
+            } catch (JsonParseException e) {
+                // Not a platform release catalog
+            }
+            try (InputStream in = content.open()) {
+                extension = JsonCatalogMapperHelper.deserialize(in, JsonExtension.class);
+            }
+        }
+        if (extension == null || extension.getArtifact() == null) {
+            throw new IOException(file + " is neither a platform release catalog nor an extension descriptor");
+        }
+        return of(extension);
+    }
+
+    /**
+     * @return the platform release, <code>null</code> if this is an extension
+     */
+    PlatformReleaseInfo getPlatformRelease() {
+        return platformRelease;
+    }
+
+    /**
+     * @return the extension, <code>null</code> if this is a platform release
+     */
+    Extension getExtension() {
+        return extension;
+    }
+
+    void addTo(RegistryGenerator generator) {
+        if (platformRelease != null) {
+            generator.add(platformRelease);
+        } else {
+            generator.add(extension);
+        }
+    }
+
+    private static boolean isYaml(String name) {
+        return name.endsWith(".yaml") || name.endsWith(".yml");
+    }
+
+    @FunctionalInterface
+    interface Source {
+        InputStream open() throws IOException;
+    }
+}
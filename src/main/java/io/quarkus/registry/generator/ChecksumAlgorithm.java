@@ -0,0 +1,38 @@
+package io.quarkus.registry.generator;
+
+/**
+ * The checksums that can be written next to the generated files, as sidecar files named after their extension
+ */
+public enum ChecksumAlgorithm {
+
+    MD5("MD5", ".md5"),
+
+    SHA1("SHA-1", ".sha1"),
+
+    SHA256("SHA-256", ".sha256"),
+
+    SHA512("SHA-512", ".sha512");
+
+    private final String algorithm;
+
+    private final String extension;
+
+    ChecksumAlgorithm(String algorithm, String extension) {
+        this.algorithm = algorithm;
+        this.extension = extension;
+    }
+
+    /**
+     * @return the name of the {@link java.security.MessageDigest} algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the extension of the sidecar file, eg. <code>.sha1</code>
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,143 @@
+package io.quarkus.registry.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import io.quarkus.registry.catalog.Extension;
+
+/**
+ * Indexes which non-platform extensions are compatible with each Quarkus version.
+ * <p>
+ * An extension built with Quarkus core <code>X.Y.Z</code> is compatible with the versions from <code>X.Y.Z</code> up to the
+ * next major version. Extensions that do not declare the Quarkus core version they were built with are compatible with
+ * every version.
+ * <p>
+ * Each extension is located with a binary search over the sorted Quarkus versions, and versions compatible with the same
+ * extensions share the same list, so the index is built in O(M log V) plus the size of the lists.
+ */
+final class CompatibilityIndex {
+
+    /**
+     * The extension metadata holding the Quarkus core version the extension was built with
+     */
+    static final String BUILT_WITH_QUARKUS_CORE = "built-with-quarkus-core";
+
+    private final Map<String, List<Extension>> extensionsByVersion;
+
+    private CompatibilityIndex(Map<String, List<Extension>> extensionsByVersion) {
+        this.extensionsByVersion = extensionsByVersion;
+    }
+
+    /**
+     * Builds the index
+     *
+     * @param extensions the extensions to index, in the order they should be listed
+     * @param quarkusVersions the Quarkus versions to index
+     * @return the compatibility index
+     */
+    static CompatibilityIndex of(List<Extension> extensions, Collection<String> quarkusVersions) {
+        List<VersionKey> versions = new ArrayList<>();
+        for (String quarkusVersion : new LinkedHashSet<>(quarkusVersions)) {
+            versions.add(VersionKey.of(quarkusVersion));
+        }
+        versions.sort(null);
+        int size = versions.size();
+        // The range of compatible versions of each extension
+        int[] from = new int[extensions.size()];
+        int[] to = new int[extensions.size()];
+        // Versions starting a new set of compatible extensions
+        boolean[] boundaries = new boolean[size + 1];
+        for (int i = 0; i < extensions.size(); i++) {
+            Map<String, Object> metadata = extensions.get(i).getMetadata();
+            Object builtWith = metadata == null ? null : metadata.get(BUILT_WITH_QUARKUS_CORE);
+            if (builtWith instanceof String) {
+                VersionKey key = VersionKey.of((String) builtWith);
+                from[i] = firstNotBefore(versions, key);
+                to[i] = firstOfNextMajor(versions, from[i], key.getMajorVersion());
+            } else {
+                from[i] = 0;
+                to[i] = size;
+            }
+            boundaries[from[i]] = true;
+            boundaries[to[i]] = true;
+        }
+        // Versions between two boundaries are compatible with the same extensions
+        int[] buckets = new int[size];
+        int bucketCount = 0;
+        for (int v = 0; v < size; v++) {
+            if (v == 0 || boundaries[v]) {
+                bucketCount++;
+            }
+            buckets[v] = bucketCount - 1;
+        }
+        List<List<Extension>> bucketExtensions = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            bucketExtensions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < extensions.size(); i++) {
+            if (from[i] < to[i]) {
+                for (int b = buckets[from[i]]; b <= buckets[to[i] - 1]; b++) {
+                    bucketExtensions.get(b).add(extensions.get(i));
+                }
+            }
+        }
+        Map<String, List<Extension>> extensionsByVersion = new HashMap<>();
+        for (int v = 0; v < size; v++) {
+            extensionsByVersion.put(versions.get(v).getVersion(), bucketExtensions.get(buckets[v]));
+        }
+        return new CompatibilityIndex(extensionsByVersion);
+    }
+
+    /**
+     * Returns the extensions compatible with a Quarkus version. Versions compatible with the same extensions return the
+     * same list instance.
+     *
+     * @param quarkusVersion an indexed Quarkus version
+     * @return the compatible extensions, in the order they were indexed
+     */
+    List<Extension> getExtensions(String quarkusVersion) {
+        List<Extension> extensions = extensionsByVersion.get(quarkusVersion);
+        if (extensions == null) {
+            throw new IllegalArgumentException("Quarkus version " + quarkusVersion + " is not indexed");
+        }
+        return extensions;
+    }
+
+    /**
+     * @return the index of the first version greater than or equal to the given one
+     */
+    private static int firstNotBefore(List<VersionKey> versions, VersionKey version) {
+        int low = 0;
+        int high = versions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (versions.get(mid).compareTo(version) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first version from the given index with a major version greater than the given one
+     */
+    private static int firstOfNextMajor(List<VersionKey> versions, int from, int majorVersion) {
+        int low = from;
+        int high = versions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (versions.get(mid).getMajorVersion() <= majorVersion) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,57 @@
+package io.quarkus.registry.generator;
+
+import java.util.List;
+
+/**
+ * Forwards the events to several listeners, in order
+ */
+final class CompositeGenerationListener implements GenerationListener {
+
+    private final GenerationListener[] listeners;
+
+    CompositeGenerationListener(List<GenerationListener> listeners) {
+        this.listeners = listeners.toArray(new GenerationListener[0]);
+    }
+
+    @Override
+    public void generationStarted() {
+        for (GenerationListener listener : listeners) {
+            listener.generationStarted();
+        }
+    }
+
+    @Override
+    public void generationCompleted(long durationNanos, Throwable failure) {
+        for (GenerationListener listener : listeners) {
+            listener.generationCompleted(durationNanos, failure);
+        }
+    }
+
+    @Override
+    public void stageStarted(GenerationStage stage) {
+        for (GenerationListener listener : listeners) {
+            listener.stageStarted(stage);
+        }
+    }
+
+    @Override
+    public void stageCompleted(GenerationStage stage, long durationNanos, Throwable failure) {
+        for (GenerationListener listener : listeners) {
+            listener.stageCompleted(stage, durationNanos, failure);
+        }
+    }
+
+    @Override
+    public void artifactWritten(String path, long bytes, long serializeNanos, long hashNanos, long writeNanos) {
+        for (GenerationListener listener : listeners) {
+            listener.artifactWritten(path, bytes, serializeNanos, hashNanos, writeNanos);
+        }
+    }
+
+    @Override
+    public void artifactSkipped(String path) {
+        for (GenerationListener listener : listeners) {
+            listener.artifactSkipped(path);
+        }
+    }
+}
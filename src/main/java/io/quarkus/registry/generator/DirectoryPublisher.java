@@ -0,0 +1,197 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+/**
+ * Generates a registry next to the live output directory and switches to it once complete, see {@link PublishMode}.
+ * <p>
+ * The staging directory starts as a copy of the live registry made of hard links, so files kept from the previous
+ * generation cost nothing. Staged files must be written with {@link PathRegistryOutput#PathRegistryOutput(Path, boolean)
+ * replaceFiles} enabled, so the live files sharing their inode are never modified.
+ */
+final class DirectoryPublisher {
+
+    private final Path outputDir;
+
+    private final PublishMode mode;
+
+    private boolean linksUnsupported;
+
+    DirectoryPublisher(Path outputDir, PublishMode mode) {
+        if (mode == PublishMode.IN_PLACE) {
+            throw new IllegalArgumentException("Nothing to publish in place");
+        }
+        this.outputDir = outputDir.toAbsolutePath().normalize();
+        this.mode = mode;
+    }
+
+    /**
+     * Creates the staging directory, populated with the files of the live registry
+     *
+     * @return the staging directory
+     * @throws IOException if the staging directory could not be created
+     */
+    Path stage() throws IOException {
+        Path live = null;
+        Path staging;
+        if (mode == PublishMode.RENAME) {
+            if (Files.isDirectory(outputDir, LinkOption.NOFOLLOW_LINKS)) {
+                live = outputDir;
+            }
+            staging = sibling(".staging");
+        } else {
+            if (Files.isSymbolicLink(outputDir)) {
+                live = linkTarget();
+            } else if (Files.exists(outputDir, LinkOption.NOFOLLOW_LINKS)) {
+                throw new IOException(outputDir + " must be a symbolic link to be published with " + mode);
+            }
+            staging = sibling("." + System.currentTimeMillis());
+        }
+        // Leftover of a failed generation
+        delete(staging);
+        if (live == null) {
+            Files.createDirectories(staging);
+        } else {
+            linkTree(live, staging);
+        }
+        return staging;
+    }
+
+    /**
+     * Switches the live registry to the staging directory
+     *
+     * @param staging the staging directory, fully generated
+     * @throws IOException if the switch failed
+     */
+    void publish(Path staging) throws IOException {
+        if (mode == PublishMode.RENAME) {
+            // A directory cannot be renamed over a non-empty one: the output directory is missing between both moves
+            Path previous = sibling(".previous");
+            delete(previous);
+            boolean moved = false;
+            if (Files.exists(outputDir, LinkOption.NOFOLLOW_LINKS)) {
+                Files.move(outputDir, previous, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            }
+            try {
+                Files.move(staging, outputDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                if (moved) {
+                    // Bring the live registry back rather than leaving nothing to serve
+                    try {
+                        Files.move(previous, outputDir, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (IOException | RuntimeException ex) {
+                        e.addSuppressed(ex);
+                    }
+                }
+                throw e;
+            }
+            delete(previous);
+        } else {
+            Path previous = Files.isSymbolicLink(outputDir) ? linkTarget() : null;
+            // Renaming a link over another one is atomic, clients never see a missing directory
+            Path link = sibling(".link");
+            Files.deleteIfExists(link);
+            Files.createSymbolicLink(link, outputDir.getParent().relativize(staging));
+            Files.move(link, outputDir, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteGenerations(staging, previous);
+        }
+    }
+
+    /**
+     * Deletes a staging directory that will not be published
+     *
+     * @param staging the staging directory
+     * @throws IOException if the directory could not be deleted
+     */
+    void discard(Path staging) throws IOException {
+        delete(staging);
+    }
+
+    private Path linkTarget() throws IOException {
+        return outputDir.getParent().resolve(Files.readSymbolicLink(outputDir)).normalize();
+    }
+
+    private Path sibling(String suffix) {
+        return outputDir.resolveSibling(outputDir.getFileName() + suffix);
+    }
+
+    /**
+     * Deletes the generations of the output directory other than the current and the previous ones
+     */
+    private void deleteGenerations(Path current, Path previous) throws IOException {
+        String prefix = outputDir.getFileName() + ".";
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(outputDir.getParent(), prefix + "*")) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)
+                        && !sibling.equals(current) && !sibling.equals(previous)) {
+                    delete(sibling);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recreates the tree of the source directory in the target one, with hard links to the source files
+     */
+    private void linkTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path targetFile = target.resolve(source.relativize(file).toString());
+                if (attrs.isSymbolicLink()) {
+                    Files.createSymbolicLink(targetFile, Files.readSymbolicLink(file));
+                } else {
+                    link(file, targetFile);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void link(Path source, Path target) throws IOException {
+        if (!linksUnsupported) {
+            try {
+                Files.createLink(target, source);
+                return;
+            } catch (UnsupportedOperationException e) {
+                // Hard links are not supported by this file system, stop trying
+                linksUnsupported = true;
+            } catch (FileSystemException e) {
+                // Other failures are about this file, which is copied instead
+                if (PathRegistryOutput.isLinkUnsupported(e)) {
+                    linksUnsupported = true;
+                }
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) walk.sorted((p1, p2) -> p2.getNameCount() - p1.getNameCount())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
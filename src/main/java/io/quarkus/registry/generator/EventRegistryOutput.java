@@ -0,0 +1,118 @@
+package io.quarkus.registry.generator;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Records a {@link GenerationEvents.WriteEvent} for each file written or aliased through the decorated output
+ */
+final class EventRegistryOutput implements RegistryOutput {
+
+    private final RegistryOutput delegate;
+
+    EventRegistryOutput(RegistryOutput delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) throws IOException {
+        GenerationEvents.WriteEvent event = new GenerationEvents.WriteEvent();
+        if (!event.isEnabled()) {
+            return delegate.newOutputStream(path);
+        }
+        event.begin();
+        return new EventOutputStream(delegate.newOutputStream(path), event, path);
+    }
+
+    @Override
+    public InputStream newInputStream(String path) throws IOException {
+        return delegate.newInputStream(path);
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return delegate.exists(path);
+    }
+
+    @Override
+    public void alias(String source, String target, AliasStrategy strategy) throws IOException {
+        GenerationEvents.WriteEvent event = new GenerationEvents.WriteEvent();
+        if (!event.isEnabled()) {
+            delegate.alias(source, target, strategy);
+            return;
+        }
+        event.begin();
+        delegate.alias(source, target, strategy);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "alias " + strategy.name().toLowerCase(Locale.ROOT);
+            event.path = target;
+            event.source = source;
+            event.artifact = GenerationEvents.artifact(target);
+            event.commit();
+        }
+    }
+
+    @Override
+    public void willAlias(String source, int aliases) {
+        delegate.willAlias(source, aliases);
+    }
+
+    @Override
+    public void sync(Collection<String> paths) throws IOException {
+        delegate.sync(paths);
+    }
+
+    /**
+     * Counts the bytes written and commits the event once the file is complete
+     */
+    private static final class EventOutputStream extends FilterOutputStream {
+
+        private final GenerationEvents.WriteEvent event;
+
+        private final String path;
+
+        private long count;
+
+        private boolean closed;
+
+        private EventOutputStream(OutputStream out, GenerationEvents.WriteEvent event, String path) {
+            super(out);
+            this.event = event;
+            this.path = path;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "write";
+                event.path = path;
+                event.artifact = GenerationEvents.artifact(path);
+                event.bytes = count;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package io.quarkus.registry.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.ExtensionOrigin;
+import io.quarkus.registry.catalog.json.JsonExtension;
+
+/**
+ * Canonicalizes the extensions added to the generator, so equal extensions, coordinates and metadata values are held
+ * once, however many times they are added.
+ * <p>
+ * The canonical extensions are copies owned by the generator, the added extensions are left untouched. Their metadata
+ * is made of unmodifiable maps and lists, shared with the other extensions. Maps are only shared when their entries
+ * are in the same order, so the serialized extensions do not change. Not thread-safe, like
+ * {@link RegistryGenerator#add(Extension)}.
+ */
+final class ExtensionInterner {
+
+    // Rough 64-bit compressed oops sizes, only used to estimate the savings
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING = 24 + OBJECT_HEADER;
+    private static final int MAP_ENTRY = 40;
+
+    private final Map<ExtensionKey, Extension> extensions = new HashMap<>();
+
+    /**
+     * Coordinates, strings and metadata maps and lists (by {@link OrderedKey}), mapped to their canonical instance
+     */
+    private final Map<Object, Object> values = new HashMap<>();
+
+    private long lookups;
+
+    private long hits;
+
+    private long bytesSaved;
+
+    /**
+     * @param extension an extension, not modified
+     * @return the extension first interned equal to the given one, or a copy of the given one whose parts are
+     *         canonicalized
+     */
+    Extension intern(Extension extension) {
+        lookups++;
+        // Only used for the lookup, the caller may modify its extension afterwards
+        Extension canonical = extensions.get(new ExtensionKey(extension));
+        if (canonical != null) {
+            hits++;
+            bytesSaved += estimateSize(extension);
+            return canonical;
+        }
+        JsonExtension copy = new JsonExtension();
+        copy.setArtifact(intern(extension.getArtifact()));
+        copy.setName(intern(extension.getName()));
+        copy.setDescription(intern(extension.getDescription()));
+        if (extension.getMetadata() != null) {
+            copy.setMetadata(intern(extension.getMetadata()));
+        }
+        if (extension.getOrigins() != null) {
+            copy.setOrigins(new ArrayList<>(extension.getOrigins()));
+        }
+        extensions.put(new ExtensionKey(copy), copy);
+        return copy;
+    }
+
+    InterningStatistics getStatistics() {
+        return new InterningStatistics(lookups, hits, bytesSaved);
+    }
+
+    /**
+     * Returns the canonical instance of a value, metadata maps and lists are replaced by unmodifiable copies whose
+     * elements are canonical
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T intern(T value) {
+        if (value == null || !(value instanceof String || value instanceof ArtifactCoords || value instanceof Map
+                || value instanceof List)) {
+            // Numbers and booleans are small, or cached by the JDK
+            return value;
+        }
+        lookups++;
+        Object canonical = values.get(OrderedKey.of(value));
+        if (canonical != null) {
+            hits++;
+            bytesSaved += estimateSize(value);
+            return (T) canonical;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(intern(entry.getKey()), intern(entry.getValue()));
+            }
+            canonical = Collections.unmodifiableMap(map);
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                list.add(intern(element));
+            }
+            canonical = Collections.unmodifiableList(list);
+        } else {
+            canonical = value;
+        }
+        values.put(OrderedKey.of(canonical), canonical);
+        return (T) canonical;
+    }
+
+    /**
+     * @return a rough estimate of the heap size of the given object graph
+     */
+    static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return STRING + OBJECT_HEADER + ((String) value).length();
+        } else if (value instanceof ArtifactCoords) {
+            ArtifactCoords coords = (ArtifactCoords) value;
+            return OBJECT_HEADER + 5 * REFERENCE + estimateSize(coords.getGroupId())
+                    + estimateSize(coords.getArtifactId()) + estimateSize(coords.getClassifier())
+                    + estimateSize(coords.getType()) + estimateSize(coords.getVersion());
+        } else if (value instanceof Map) {
+            long size = OBJECT_HEADER * 3;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += MAP_ENTRY + REFERENCE + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        } else if (value instanceof List) {
+            long size = OBJECT_HEADER * 2;
+            for (Object element : (List<?>) value) {
+                size += REFERENCE + estimateSize(element);
+            }
+            return size;
+        } else if (value instanceof Extension) {
+            Extension extension = (Extension) value;
+            return OBJECT_HEADER + 5 * REFERENCE + estimateSize(extension.getArtifact())
+                    + estimateSize(extension.getName()) + estimateSize(extension.getDescription())
+                    + estimateSize(extension.getMetadata());
+        }
+        return OBJECT_HEADER;
+    }
+
+    /**
+     * Compares extensions by content, origins by id
+     */
+    private static final class ExtensionKey {
+
+        private final Extension extension;
+
+        private final List<String> origins;
+
+        private final int hashCode;
+
+        private ExtensionKey(Extension extension) {
+            this.extension = extension;
+            this.origins = new ArrayList<>();
+            if (extension.getOrigins() != null) {
+                for (ExtensionOrigin origin : extension.getOrigins()) {
+                    origins.add(origin.getId());
+                }
+            }
+            this.hashCode = Objects.hash(extension.getArtifact(), extension.getName(), extension.getDescription(),
+                    extension.getMetadata(), origins);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ExtensionKey)) {
+                return false;
+            }
+            ExtensionKey that = (ExtensionKey) o;
+            return hashCode == that.hashCode
+                    && Objects.equals(extension.getArtifact(), that.extension.getArtifact())
+                    && Objects.equals(extension.getName(), that.extension.getName())
+                    && Objects.equals(extension.getDescription(), that.extension.getDescription())
+                    && OrderedKey.equals(extension.getMetadata(), that.extension.getMetadata())
+                    && origins.equals(that.origins);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Compares maps and lists like {@link Object#equals(Object)}, but also requires the entries of the maps, at any
+     * depth, to be in the same order
+     */
+    private static final class OrderedKey {
+
+        private final Object value;
+
+        private final int hashCode;
+
+        private OrderedKey(Object value) {
+            this.value = value;
+            this.hashCode = value.hashCode();
+        }
+
+        static Object of(Object value) {
+            return value instanceof Map || value instanceof List ? new OrderedKey(value) : value;
+        }
+
+        static boolean equals(Object a, Object b) {
+            if (a == b) {
+                return true;
+            }
+            if (a instanceof Map && b instanceof Map) {
+                Map<?, ?> mapA = (Map<?, ?>) a;
+                Map<?, ?> mapB = (Map<?, ?>) b;
+                if (mapA.size() != mapB.size()) {
+                    return false;
+                }
+                Iterator<? extends Map.Entry<?, ?>> entriesB = mapB.entrySet().iterator();
+                for (Map.Entry<?, ?> entryA : mapA.entrySet()) {
+                    Map.Entry<?, ?> entryB = entriesB.next();
+                    if (!equals(entryA.getKey(), entryB.getKey()) || !equals(entryA.getValue(), entryB.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (a instanceof List && b instanceof List) {
+                List<?> listA = (List<?>) a;
+                List<?> listB = (List<?>) b;
+                if (listA.size() != listB.size()) {
+                    return false;
+                }
+                for (int i = 0; i < listA.size(); i++) {
+                    if (!equals(listA.get(i), listB.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return Objects.equals(a, b);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof OrderedKey && hashCode == ((OrderedKey) o).hashCode
+                    && equals(value, ((OrderedKey) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
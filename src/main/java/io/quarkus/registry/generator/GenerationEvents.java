@@ -0,0 +1,115 @@
+package io.quarkus.registry.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JDK Flight Recorder events of the generator.
+ * <p>
+ * Events are only committed while a recording enables them. Callers check {@link Event#isEnabled()} before computing
+ * the event fields, so a disabled event costs an allocation the JIT removes.
+ */
+final class GenerationEvents {
+
+    private GenerationEvents() {
+    }
+
+    /**
+     * @param path the path of an artifact file
+     * @return the <code>groupId:artifactId:version</code> coordinates of the artifact, derived from its path, or
+     *         <code>null</code> if the file is not in a Maven artifact directory
+     */
+    static String artifact(String path) {
+        int fileIndex = path.lastIndexOf('/');
+        int versionIndex = fileIndex > 0 ? path.lastIndexOf('/', fileIndex - 1) : -1;
+        int artifactIndex = versionIndex > 0 ? path.lastIndexOf('/', versionIndex - 1) : -1;
+        if (artifactIndex <= 0 || path.startsWith(".")) {
+            return null;
+        }
+        return path.substring(0, artifactIndex).replace('/', '.')
+                + ':' + path.substring(artifactIndex + 1, versionIndex)
+                + ':' + path.substring(versionIndex + 1, fileIndex);
+    }
+
+    @Name("io.quarkus.registry.generator.Stage")
+    @Label("Generation Stage")
+    @Description("A stage of the registry generation")
+    @Category({ "Quarkus", "Registry Generator" })
+    @StackTrace(false)
+    static final class StageEvent extends Event {
+
+        @Label("Stage")
+        String stage;
+    }
+
+    @Name("io.quarkus.registry.generator.Serialize")
+    @Label("Artifact Serialization")
+    @Description("The serialization of an artifact, including hashing and writing it when it is streamed to the output")
+    @Category({ "Quarkus", "Registry Generator" })
+    @StackTrace(false)
+    static final class SerializeEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Artifact")
+        String artifact;
+
+        @Label("Quarkus Version")
+        String quarkusVersion;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("io.quarkus.registry.generator.Digest")
+    @Label("Checksum Computation")
+    @Description("The completion of the checksums of some content")
+    @Category({ "Quarkus", "Registry Generator" })
+    @StackTrace(false)
+    static final class DigestEvent extends Event {
+
+        @Label("Algorithms")
+        String algorithms;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Update Time")
+        @Description("The time spent feeding the content to the digests, spread over the writes")
+        @Timespan
+        long updateTime;
+    }
+
+    @Name("io.quarkus.registry.generator.Write")
+    @Label("File Write")
+    @Description("A file written to, or aliased in, the registry output")
+    @Category({ "Quarkus", "Registry Generator" })
+    @StackTrace(false)
+    static final class WriteEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Path")
+        String path;
+
+        @Label("Source")
+        String source;
+
+        @Label("Artifact")
+        String artifact;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,63 @@
+package io.quarkus.registry.generator;
+
+/**
+ * Receives the progress of a {@link RegistryGenerator}, eg. to log or export metrics.
+ * <p>
+ * Methods may be called concurrently from the threads of the generator executor, and must return quickly.
+ * Durations are in nanoseconds. Timings are only measured when a listener is registered.
+ */
+public interface GenerationListener {
+
+    /**
+     * Called when a generation starts
+     */
+    default void generationStarted() {
+    }
+
+    /**
+     * Called when a generation ends, once every file is written
+     *
+     * @param durationNanos the duration of the generation
+     * @param failure the failure of the generation, <code>null</code> if it succeeded
+     */
+    default void generationCompleted(long durationNanos, Throwable failure) {
+    }
+
+    /**
+     * Called when a stage starts
+     *
+     * @param stage the stage
+     */
+    default void stageStarted(GenerationStage stage) {
+    }
+
+    /**
+     * Called when a stage ends. Compressed copies may still be written after the end of their stage.
+     *
+     * @param stage the stage
+     * @param durationNanos the duration of the stage
+     * @param failure the failure of the stage, <code>null</code> if it succeeded
+     */
+    default void stageCompleted(GenerationStage stage, long durationNanos, Throwable failure) {
+    }
+
+    /**
+     * Called when an artifact and its checksum files are written
+     *
+     * @param path the path of the artifact in the output
+     * @param bytes the serialized size of the artifact
+     * @param serializeNanos the time spent serializing the artifact
+     * @param hashNanos the time spent computing the checksums of the artifact
+     * @param writeNanos the time spent writing the artifact and its checksum files to the output
+     */
+    default void artifactWritten(String path, long bytes, long serializeNanos, long hashNanos, long writeNanos) {
+    }
+
+    /**
+     * Called when an artifact is kept from the previous incremental generation
+     *
+     * @param path the path of the artifact in the output
+     */
+    default void artifactSkipped(String path) {
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkus.registry.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The content checksum and snapshot version of each artifact written by an incremental generation.
+ * <p>
+ * Stored as <code>.meta/generation-manifest.txt</code>, one <code>key&lt;TAB&gt;sha1&lt;TAB&gt;version</code> line per
+ * artifact, so the next generation can keep the files of the artifacts whose content did not change.
+ */
+final class GenerationManifest {
+
+    static final String FILE_NAME = "generation-manifest.txt";
+
+    /**
+     * The version of artifacts that are not snapshots (eg. the .meta files)
+     */
+    static final String NO_VERSION = "-";
+
+    private static final String HEADER = "# quarkus-registry-generator manifest/1.0";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Reads a manifest. Malformed lines are ignored, the corresponding artifacts are generated again.
+     *
+     * @param output the output the manifest was written to
+     * @param path the path of the manifest file
+     * @return the manifest, empty if the file does not exist
+     * @throws IOException if some IO exception occurs
+     */
+    static GenerationManifest read(RegistryOutput output, String path) throws IOException {
+        GenerationManifest manifest = new GenerationManifest();
+        if (output.exists(path)) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(output.newInputStream(path), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] parts = line.split("\t");
+                    if (parts.length == 3) {
+                        manifest.put(parts[0], new Entry(parts[1], parts[2]));
+                    }
+                }
+            }
+        }
+        return manifest;
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    void put(String key, String sha1, String version) {
+        put(key, new Entry(sha1, version));
+    }
+
+    void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    /**
+     * Writes the entries sorted by key, so unchanged manifests are written identically
+     */
+    void write(RegistryOutput output, String path) throws IOException {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        new TreeMap<>(entries).forEach((key, entry) -> sb.append(key)
+                .append('\t').append(entry.getSha1())
+                .append('\t').append(entry.getVersion())
+                .append('\n'));
+        try (OutputStream out = output.newOutputStream(path)) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static final class Entry {
+
+        private final String sha1;
+
+        private final String version;
+
+        Entry(String sha1, String version) {
+            this.sha1 = sha1;
+            this.version = version;
+        }
+
+        String getSha1() {
+            return sha1;
+        }
+
+        String getVersion() {
+            return version;
+        }
+    }
+}
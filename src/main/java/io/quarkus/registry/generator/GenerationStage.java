@@ -0,0 +1,27 @@
+package io.quarkus.registry.generator;
+
+/**
+ * The stages of a generation, each writing its own part of the registry
+ */
+public enum GenerationStage {
+
+    /**
+     * The <code>.meta</code> files describing the repository
+     */
+    REPOSITORY_METADATA,
+
+    /**
+     * The registry descriptor
+     */
+    CONFIG,
+
+    /**
+     * The platforms catalog
+     */
+    PLATFORMS,
+
+    /**
+     * The non-platform extensions catalog of each Quarkus version
+     */
+    NON_PLATFORM_EXTENSIONS
+}
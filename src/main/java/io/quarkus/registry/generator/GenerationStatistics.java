@@ -0,0 +1,118 @@
+package io.quarkus.registry.generator;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals the events of the generations it listens to. Cheap enough to be always registered.
+ */
+public final class GenerationStatistics implements GenerationListener {
+
+    private final LongAdder generations = new LongAdder();
+
+    private final LongAdder generationNanos = new LongAdder();
+
+    private final Map<GenerationStage, LongAdder> stageNanos = new EnumMap<>(GenerationStage.class);
+
+    private final LongAdder artifactsWritten = new LongAdder();
+
+    private final LongAdder artifactsSkipped = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LongAdder serializeNanos = new LongAdder();
+
+    private final LongAdder hashNanos = new LongAdder();
+
+    private final LongAdder writeNanos = new LongAdder();
+
+    public GenerationStatistics() {
+        for (GenerationStage stage : GenerationStage.values()) {
+            stageNanos.put(stage, new LongAdder());
+        }
+    }
+
+    @Override
+    public void generationCompleted(long durationNanos, Throwable failure) {
+        generations.increment();
+        generationNanos.add(durationNanos);
+    }
+
+    @Override
+    public void stageCompleted(GenerationStage stage, long durationNanos, Throwable failure) {
+        stageNanos.get(stage).add(durationNanos);
+    }
+
+    @Override
+    public void artifactWritten(String path, long bytes, long serializeNanos, long hashNanos, long writeNanos) {
+        artifactsWritten.increment();
+        bytesWritten.add(bytes);
+        this.serializeNanos.add(serializeNanos);
+        this.hashNanos.add(hashNanos);
+        this.writeNanos.add(writeNanos);
+    }
+
+    @Override
+    public void artifactSkipped(String path) {
+        artifactsSkipped.increment();
+    }
+
+    public long getGenerations() {
+        return generations.sum();
+    }
+
+    public Duration getGenerationTime() {
+        return Duration.ofNanos(generationNanos.sum());
+    }
+
+    /**
+     * @param stage the stage
+     * @return the time spent in the given stage, the stages may run concurrently
+     */
+    public Duration getStageTime(GenerationStage stage) {
+        return Duration.ofNanos(stageNanos.get(stage).sum());
+    }
+
+    public long getArtifactsWritten() {
+        return artifactsWritten.sum();
+    }
+
+    public long getArtifactsSkipped() {
+        return artifactsSkipped.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public Duration getSerializeTime() {
+        return Duration.ofNanos(serializeNanos.sum());
+    }
+
+    public Duration getHashTime() {
+        return Duration.ofNanos(hashNanos.sum());
+    }
+
+    public Duration getWriteTime() {
+        return Duration.ofNanos(writeNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("GenerationStatistics{generations=").append(getGenerations())
+                .append(", generationTime=").append(getGenerationTime());
+        for (GenerationStage stage : GenerationStage.values()) {
+            sb.append(", ").append(stage).append('=').append(getStageTime(stage));
+        }
+        return sb.append(", artifactsWritten=").append(getArtifactsWritten())
+                .append(", artifactsSkipped=").append(getArtifactsSkipped())
+                .append(", bytesWritten=").append(getBytesWritten())
+                .append(", serializeTime=").append(getSerializeTime())
+                .append(", hashTime=").append(getHashTime())
+                .append(", writeTime=").append(getWriteTime())
+                .append('}')
+                .toString();
+    }
+}
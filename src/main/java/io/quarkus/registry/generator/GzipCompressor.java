@@ -0,0 +1,180 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the gzip compressed sibling of generated files on a worker pool, so they can be served as they are (eg. with the
+ * nginx <code>gzip_static</code> module).
+ * <p>
+ * The number of files waiting to be compressed is bounded, submitting a file blocks until one of them is written. The
+ * worker pool must therefore be dedicated to the compressor: a worker blocked in {@link #compress} would otherwise wait
+ * for compressions queued behind it.
+ */
+final class GzipCompressor {
+
+    static final String GZ_EXTENSION = ".gz";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final RegistryOutput output;
+
+    private final int level;
+
+    private final Executor executor;
+
+    private final Semaphore permits;
+
+    /**
+     * The pending compression of each file, used to alias the compressed file once it is written
+     */
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    private final Queue<CompletableFuture<Void>> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param output the output to write the compressed files to
+     * @param level the compression level, see {@link java.util.zip.Deflater}
+     * @param executor the worker pool compressing the files, not used to call {@link #compress}
+     * @param parallelism the maximum number of files waiting to be compressed
+     */
+    GzipCompressor(RegistryOutput output, int level, Executor executor, int parallelism) {
+        this.output = output;
+        this.level = level;
+        this.executor = executor;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * @return the compressed sibling of the given file
+     */
+    static String compressed(String file) {
+        return file + GZ_EXTENSION;
+    }
+
+    /**
+     * Compresses the content of a file to its sibling
+     *
+     * @param file the file, already written
+     * @param bytes the content of the file, must not be modified afterwards
+     * @throws InterruptedIOException if interrupted while waiting for a pending file to be compressed
+     */
+    void compress(String file, ByteArrayOutputStream bytes) throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while compressing " + file);
+            ex.initCause(e);
+            throw ex;
+        }
+        CompletableFuture<Void> task;
+        try {
+            task = CompletableFuture.runAsync(() -> {
+                try {
+                    write(compressed(file), bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        pending.put(file, task);
+        tasks.add(task);
+    }
+
+    /**
+     * Runs an action once the compressed sibling of a file is written, or right away if it is not being compressed
+     *
+     * @param file the file
+     * @param action the action, usually creating an alias of the compressed file
+     * @throws IOException if the action is run right away and fails
+     */
+    void afterCompressed(String file, Action action) throws IOException {
+        CompletableFuture<Void> task = pending.get(file);
+        if (task == null) {
+            action.run();
+            return;
+        }
+        tasks.add(task.thenRunAsync(() -> {
+            try {
+                action.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor));
+    }
+
+    /**
+     * Waits for every compression and action submitted so far
+     *
+     * @return the first failure, with the following ones suppressed, or <code>null</code>
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    Throwable await() throws InterruptedIOException {
+        Throwable failure = null;
+        CompletableFuture<Void> task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException ex = new InterruptedIOException("Interrupted while compressing files");
+                ex.initCause(e);
+                throw ex;
+            } catch (ExecutionException e) {
+                Throwable cause = unwrap(e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else if (failure != cause) {
+                    // Actions fail with the same cause as the compression they wait for
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        pending.clear();
+        return failure;
+    }
+
+    private void write(String target, ByteArrayOutputStream bytes) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(output.newOutputStream(target), BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            bytes.writeTo(out);
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof UncheckedIOException) {
+            return failure.getCause();
+        }
+        return failure;
+    }
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws IOException;
+    }
+}
@@ -1,40 +1,261 @@
 package io.quarkus.registry.generator;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.codec.binary.Hex;
 
 class HashUtil {
 
+    private static final ChecksumAlgorithm[] ALGORITHMS = ChecksumAlgorithm.values();
+
+    // MessageDigest.getInstance goes through the provider lookup on every call, keep one instance per thread
+    private static final ThreadLocal<MessageDigest[]> DIGESTS = ThreadLocal
+            .withInitial(() -> new MessageDigest[ALGORITHMS.length]);
+
     public static String sha1(String content) throws IOException {
         return checksum(content, sha1Digest());
     }
 
+    public static String sha1(byte[] content) {
+        return checksum(content, sha1Digest());
+    }
+
     public static String md5(String content) throws IOException {
-        return checksum(content, md5Digest());
+        return checksum(content, digest(ChecksumAlgorithm.MD5));
     }
 
-    private static String checksum(String content, MessageDigest digest) {
-        digest.update(content.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Completes the digest computation
+     *
+     * @param digest the digest to complete, reset afterwards
+     * @return the digest as a hex string
+     */
+    public static String toHex(MessageDigest digest) {
         return Hex.encodeHexString(digest.digest());
     }
 
-    private static MessageDigest sha1Digest() {
-        try {
-            return MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
+    private static String checksum(String content, MessageDigest digest) {
+        return checksum(content.getBytes(StandardCharsets.UTF_8), digest);
+    }
+
+    private static String checksum(byte[] content, MessageDigest digest) {
+        GenerationEvents.DigestEvent event = new GenerationEvents.DigestEvent();
+        event.begin();
+        digest.update(content);
+        String checksum = toHex(digest);
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithms = digest.getAlgorithm();
+            event.bytes = content.length;
+            event.commit();
         }
+        return checksum;
     }
 
-    private static MessageDigest md5Digest() {
+    /**
+     * Returns the SHA-1 digest of the current thread, reset and ready to use.
+     * The digest is shared by all the SHA-1 computations of the thread, so it must be completed before computing
+     * another SHA-1 checksum.
+     */
+    static MessageDigest sha1Digest() {
+        return digest(ChecksumAlgorithm.SHA1);
+    }
+
+    /**
+     * Returns the digest of the current thread for the given algorithm, reset and ready to use.
+     * Like {@link #sha1Digest()}, it must be completed before computing another checksum with the same algorithm.
+     */
+    static MessageDigest digest(ChecksumAlgorithm algorithm) {
+        MessageDigest[] digests = DIGESTS.get();
+        MessageDigest digest = digests[algorithm.ordinal()];
+        if (digest == null) {
+            digest = newDigest(algorithm.getAlgorithm());
+            digests[algorithm.ordinal()] = digest;
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    /**
+     * Returns a stream computing the checksums of everything written to it with the digests of the current thread, in a
+     * single pass over the bytes
+     *
+     * @param out the stream to write to
+     * @param algorithms the checksums to compute
+     * @return the stream, the checksums are available once it is closed
+     */
+    static ChecksumOutputStream checksumOutputStream(OutputStream out, Set<ChecksumAlgorithm> algorithms) {
+        return checksumOutputStream(out, algorithms, false);
+    }
+
+    /**
+     * Like {@link #checksumOutputStream(OutputStream, Set)}, optionally measuring the time spent hashing and writing
+     *
+     * @param out the stream to write to
+     * @param algorithms the checksums to compute
+     * @param timed whether to measure the time spent in the digests and in the given stream
+     * @return the stream, the checksums are available once it is closed
+     */
+    static ChecksumOutputStream checksumOutputStream(OutputStream out, Set<ChecksumAlgorithm> algorithms,
+            boolean timed) {
+        return new ChecksumOutputStream(out, algorithms, timed);
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
         try {
-            return MessageDigest.getInstance("MD5");
+            return MessageDigest.getInstance(algorithm);
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * Feeds each buffer written to every digest before passing it on. Not thread-safe, like the digests it uses.
+     */
+    static final class ChecksumOutputStream extends FilterOutputStream {
+
+        private final ChecksumAlgorithm[] algorithms;
+
+        private final MessageDigest[] digests;
+
+        private final boolean timed;
+
+        private final GenerationEvents.DigestEvent event = new GenerationEvents.DigestEvent();
+
+        private long count;
+
+        private long hashNanos;
+
+        private long writeNanos;
+
+        private boolean closed;
+
+        private ChecksumOutputStream(OutputStream out, Set<ChecksumAlgorithm> algorithms, boolean timed) {
+            super(out);
+            // The digest event reports the update time, which is only measured when timed
+            this.timed = timed || event.isEnabled();
+            this.algorithms = algorithms.toArray(new ChecksumAlgorithm[0]);
+            this.digests = new MessageDigest[this.algorithms.length];
+            for (int i = 0; i < this.algorithms.length; i++) {
+                digests[i] = digest(this.algorithms[i]);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = timed ? System.nanoTime() : 0;
+            for (MessageDigest digest : digests) {
+                digest.update((byte) b);
+            }
+            if (timed) {
+                long hashed = System.nanoTime();
+                out.write(b);
+                hashNanos += hashed - start;
+                writeNanos += System.nanoTime() - hashed;
+            } else {
+                out.write(b);
+            }
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!timed) {
+                for (MessageDigest digest : digests) {
+                    digest.update(b, off, len);
+                }
+                out.write(b, off, len);
+            } else {
+                long start = System.nanoTime();
+                for (MessageDigest digest : digests) {
+                    digest.update(b, off, len);
+                }
+                long hashed = System.nanoTime();
+                out.write(b, off, len);
+                hashNanos += hashed - start;
+                writeNanos += System.nanoTime() - hashed;
+            }
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = timed ? System.nanoTime() : 0;
+            out.flush();
+            if (timed) {
+                writeNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long start = timed ? System.nanoTime() : 0;
+            try (OutputStream o = out) {
+                o.flush();
+            } finally {
+                if (timed) {
+                    writeNanos += System.nanoTime() - start;
+                }
+            }
+        }
+
+        /**
+         * @return the number of bytes written
+         */
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the time spent computing the checksums, including {@link #getChecksums()}, 0 unless timed
+         */
+        long getHashNanos() {
+            return hashNanos;
+        }
+
+        /**
+         * @return the time spent writing to the underlying stream, including flushing and closing it, 0 unless timed
+         */
+        long getWriteNanos() {
+            return writeNanos;
+        }
+
+        /**
+         * Completes the digests, must be called only once
+         *
+         * @return the checksums as hex strings, by algorithm
+         */
+        Map<ChecksumAlgorithm, String> getChecksums() {
+            long start = timed ? System.nanoTime() : 0;
+            event.begin();
+            Map<ChecksumAlgorithm, String> checksums = new EnumMap<>(ChecksumAlgorithm.class);
+            for (int i = 0; i < algorithms.length; i++) {
+                checksums.put(algorithms[i], toHex(digests[i]));
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.algorithms = checksums.keySet().toString();
+                event.bytes = count;
+                event.updateTime = hashNanos;
+                event.commit();
+            }
+            if (timed) {
+                hashNanos += System.nanoTime() - start;
+            }
+            return checksums;
+        }
+    }
 }
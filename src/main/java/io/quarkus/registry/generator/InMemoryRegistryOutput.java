@@ -0,0 +1,82 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps the generated files in memory, eg. to serve or upload them without writing them to disk.
+ * <p>
+ * Aliases share the content of their source instead of copying it.
+ */
+public final class InMemoryRegistryOutput implements RegistryOutput {
+
+    private final ConcurrentNavigableMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+
+    InMemoryRegistryOutput() {
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) {
+        return new ByteArrayOutputStream() {
+
+            private boolean closed;
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    files.put(path, toByteArray());
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream newInputStream(String path) throws NoSuchFileException {
+        return new ByteArrayInputStream(getBytes(path));
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return files.containsKey(path);
+    }
+
+    @Override
+    public void alias(String source, String target, AliasStrategy strategy) throws NoSuchFileException {
+        files.put(target, getBytes(source));
+    }
+
+    /**
+     * @return the paths of the files written so far, sorted
+     */
+    public NavigableSet<String> getPaths() {
+        return Collections.unmodifiableNavigableSet(files.keySet());
+    }
+
+    /**
+     * @param path the path of the file
+     * @return a copy of the file content
+     * @throws NoSuchFileException if the file does not exist
+     */
+    public byte[] getContent(String path) throws NoSuchFileException {
+        return getBytes(path).clone();
+    }
+
+    /**
+     * @return the file content itself, which must not be modified
+     */
+    byte[] getBytes(String path) throws NoSuchFileException {
+        byte[] bytes = files.get(path);
+        if (bytes == null) {
+            throw new NoSuchFileException(path);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,220 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.catalog.json.JsonExtension;
+
+/**
+ * Keeps the parsed input files in a cache directory, so unchanged inputs are not parsed again by the next runs.
+ * <p>
+ * Each entry is a Smile document holding the size, modification time and SHA-1 of its source file, followed by the
+ * platform release projection or the extension. An entry is used as is when the size and modification time of the
+ * source file did not change, and after comparing the SHA-1 when only the modification time did. The least recently
+ * used entries are evicted once the cache exceeds its size budget.
+ */
+final class InputCache {
+
+    private static final int FORMAT = 1;
+
+    private static final String ENTRY_SUFFIX = ".sml";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    private final JsonFactory smile = new SmileFactory();
+
+    InputCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads an input file from the cache, parsing and caching it if needed. Safe to call concurrently for different
+     * files.
+     *
+     * @param file the input file
+     * @return the parsed input
+     * @throws IOException if the input file could not be read or parsed
+     */
+    CatalogInput read(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Path entry = directory.resolve(HashUtil.sha1(file.toAbsolutePath().normalize().toString()) + ENTRY_SUFFIX);
+        Entry cached = readEntry(entry);
+        if (cached != null && cached.size == attributes.size() && cached.lastModified == lastModified) {
+            touch(entry);
+            return cached.input;
+        }
+        byte[] content = Files.readAllBytes(file);
+        String sha1 = HashUtil.sha1(content);
+        CatalogInput input;
+        if (cached != null && cached.sha1.equals(sha1)) {
+            // Touched, but not modified
+            input = cached.input;
+        } else {
+            input = CatalogInput.read(file, () -> new ByteArrayInputStream(content));
+        }
+        writeEntry(entry, new Entry(content.length, lastModified, sha1, input));
+        return input;
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits in its size budget
+     *
+     * @throws IOException if the cache directory could not be listed
+     */
+    void evict() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Map<Path, BasicFileAttributes> entries = new HashMap<>();
+        long size = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                entries.put(entry, attributes);
+                size += attributes.size();
+            }
+        }
+        List<Path> leastRecentlyUsed = new ArrayList<>(entries.keySet());
+        leastRecentlyUsed.sort(Comparator.comparing(entry -> entries.get(entry).lastModifiedTime()));
+        for (Path entry : leastRecentlyUsed) {
+            if (size <= maxSize) {
+                break;
+            }
+            Files.deleteIfExists(entry);
+            size -= entries.get(entry).size();
+        }
+    }
+
+    /**
+     * @return the entry, or <code>null</code> if it does not exist or cannot be read
+     */
+    private Entry readEntry(Path entry) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entry);
+        } catch (IOException e) {
+            return null;
+        }
+        try (JsonParser parser = smile.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int format = 0;
+            long size = -1;
+            long lastModified = -1;
+            String sha1 = null;
+            CatalogInput input = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if ("platform-release".equals(field)) {
+                    input = CatalogInput.of(PlatformReleaseInfo.read(parser));
+                    continue;
+                }
+                parser.nextToken();
+                if ("format".equals(field)) {
+                    format = parser.getIntValue();
+                } else if ("size".equals(field)) {
+                    size = parser.getLongValue();
+                } else if ("last-modified".equals(field)) {
+                    lastModified = parser.getLongValue();
+                } else if ("sha1".equals(field)) {
+                    sha1 = parser.getValueAsString();
+                } else if ("extension".equals(field)) {
+                    input = CatalogInput.of(JsonCatalogMapperHelper.mapper().readValue(parser, JsonExtension.class));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return format == FORMAT && sha1 != null && input != null ? new Entry(size, lastModified, sha1, input) : null;
+        } catch (IOException | RuntimeException e) {
+            // Corrupted or written by another version, parse the source file again
+            return null;
+        }
+    }
+
+    /**
+     * Writes the entry to a temporary file first, so a concurrent or interrupted run never reads a partial entry
+     */
+    private void writeEntry(Path entry, Entry value) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, entry.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp); JsonGenerator generator = smile.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeNumberField("format", FORMAT);
+                generator.writeNumberField("size", value.size);
+                generator.writeNumberField("last-modified", value.lastModified);
+                generator.writeStringField("sha1", value.sha1);
+                if (value.input.getPlatformRelease() != null) {
+                    generator.writeFieldName("platform-release");
+                    value.input.getPlatformRelease().write(generator);
+                } else {
+                    generator.writeFieldName("extension");
+                    JsonCatalogMapperHelper.mapper().writeValue(generator, value.input.getExtension());
+                }
+                generator.writeEndObject();
+            }
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Marks the entry as recently used for the eviction
+     */
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only makes the entry more likely to be evicted
+        }
+    }
+
+    private static final class Entry {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String sha1;
+
+        private final CatalogInput input;
+
+        private Entry(long size, long lastModified, String sha1, CatalogInput input) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+            this.input = input;
+        }
+    }
+}
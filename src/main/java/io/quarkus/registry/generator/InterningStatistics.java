@@ -0,0 +1,46 @@
+package io.quarkus.registry.generator;
+
+/**
+ * How much the deduplication of the extensions added to a {@link RegistryGenerator} saved
+ */
+public final class InterningStatistics {
+
+    private final long lookups;
+
+    private final long hits;
+
+    private final long estimatedBytesSaved;
+
+    InterningStatistics(long lookups, long hits, long estimatedBytesSaved) {
+        this.lookups = lookups;
+        this.hits = hits;
+        this.estimatedBytesSaved = estimatedBytesSaved;
+    }
+
+    /**
+     * @return the number of extensions, coordinates and metadata values looked up
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * @return the number of lookups that found an equal instance, the looked up one can be garbage collected
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return a rough estimate of the heap size of the instances replaced by an equal one
+     */
+    public long getEstimatedBytesSaved() {
+        return estimatedBytesSaved;
+    }
+
+    @Override
+    public String toString() {
+        return "InterningStatistics{lookups=" + lookups + ", hits=" + hits + ", estimatedBytesSaved="
+                + estimatedBytesSaved + '}';
+    }
+}
@@ -1,11 +1,16 @@
 package io.quarkus.registry.generator;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import io.quarkus.maven.ArtifactCoords;
 import org.apache.maven.artifact.repository.metadata.Metadata;
@@ -56,6 +61,34 @@ class MetadataGenerator {
         return newMetadata;
     }
 
+    /**
+     * Generates the metadata of a snapshot whose JSON classifiers were not all deployed at the same time
+     *
+     * @param classifierVersions the timestamped version of each JSON classifier, eg. 1.0-20210803.135924-1
+     */
+    public static Metadata generateMetadata(ArtifactCoords artifact, Date lastUpdatedTimestamp,
+            Map<String, String> classifierVersions) {
+        Metadata newMetadata = generateMetadata(artifact, lastUpdatedTimestamp, Collections.emptyList());
+        Versioning versioning = newMetadata.getVersioning();
+        classifierVersions.forEach((classifier, version) -> {
+            final SnapshotVersion sv = new SnapshotVersion();
+            sv.setExtension("json");
+            sv.setVersion(version);
+            sv.setClassifier(classifier);
+            sv.setUpdated(toUpdated(version));
+            versioning.addSnapshotVersion(sv);
+        });
+        return newMetadata;
+    }
+
+    /**
+     * Extracts the update timestamp of a timestamped version. Eg. 1.0-20210803.135924-1 -> 20210803135924
+     */
+    private static String toUpdated(String version) {
+        int buildNumberIdx = version.lastIndexOf('-');
+        return version.substring(buildNumberIdx - "yyyyMMdd.HHmmss".length(), buildNumberIdx).replace(".", "");
+    }
+
     private static void addSnapshotVersion(Versioning versioning, Snapshot snapshot, final String baseVersion,
             String extension, Collection<String> classifiers) {
         final String version = baseVersion + snapshot.getTimestamp() + "-" + snapshot.getBuildNumber();
@@ -69,6 +102,24 @@ class MetadataGenerator {
         }
     }
 
+    /**
+     * Writes the metadata as UTF-8 encoded XML. The stream is flushed but not closed.
+     */
+    public static void write(Metadata metadata, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        METADATA_WRITER.write(writer, metadata);
+        writer.flush();
+    }
+
+    /**
+     * Writes the repository metadata as UTF-8 encoded XML. The stream is flushed but not closed.
+     */
+    public static void write(RepositoryMetadata metadata, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        new RepositoryMetadataXpp3Writer().write(writer, metadata);
+        writer.flush();
+    }
+
     public static String toString(Metadata metadata) {
         StringWriter sw = new StringWriter();
         try {
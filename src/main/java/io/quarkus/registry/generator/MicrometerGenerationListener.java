@@ -0,0 +1,90 @@
+package io.quarkus.registry.generator;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Exports the generation events to Micrometer. Requires <code>io.micrometer:micrometer-core</code>, which is an optional
+ * dependency of the generator.
+ * <p>
+ * Meters are named <code>quarkus.registry.generation.*</code>, stage timers are tagged with the stage name.
+ */
+public final class MicrometerGenerationListener implements GenerationListener {
+
+    private static final String PREFIX = "quarkus.registry.generation";
+
+    private final Timer generationTimer;
+
+    private final Counter generationFailures;
+
+    private final Map<GenerationStage, Timer> stageTimers = new EnumMap<>(GenerationStage.class);
+
+    private final Counter artifactsWritten;
+
+    private final Counter artifactsSkipped;
+
+    private final DistributionSummary artifactBytes;
+
+    private final Timer serializeTimer;
+
+    private final Timer hashTimer;
+
+    private final Timer writeTimer;
+
+    public MicrometerGenerationListener(MeterRegistry registry) {
+        generationTimer = Timer.builder(PREFIX).description("Duration of the generations").register(registry);
+        generationFailures = Counter.builder(PREFIX + ".failures").description("Failed generations").register(registry);
+        for (GenerationStage stage : GenerationStage.values()) {
+            stageTimers.put(stage, Timer.builder(PREFIX + ".stage")
+                    .description("Duration of the generation stages")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        artifactsWritten = Counter.builder(PREFIX + ".artifacts.written").description("Artifacts written")
+                .register(registry);
+        artifactsSkipped = Counter.builder(PREFIX + ".artifacts.skipped")
+                .description("Artifacts kept from the previous incremental generation")
+                .register(registry);
+        artifactBytes = DistributionSummary.builder(PREFIX + ".artifact.size").description("Serialized artifact sizes")
+                .baseUnit("bytes")
+                .register(registry);
+        serializeTimer = Timer.builder(PREFIX + ".artifact.serialize").description("Artifact serialization time")
+                .register(registry);
+        hashTimer = Timer.builder(PREFIX + ".artifact.hash").description("Artifact checksum time").register(registry);
+        writeTimer = Timer.builder(PREFIX + ".artifact.write").description("Artifact write time").register(registry);
+    }
+
+    @Override
+    public void generationCompleted(long durationNanos, Throwable failure) {
+        generationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (failure != null) {
+            generationFailures.increment();
+        }
+    }
+
+    @Override
+    public void stageCompleted(GenerationStage stage, long durationNanos, Throwable failure) {
+        stageTimers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void artifactWritten(String path, long bytes, long serializeNanos, long hashNanos, long writeNanos) {
+        artifactsWritten.increment();
+        artifactBytes.record(bytes);
+        serializeTimer.record(serializeNanos, TimeUnit.NANOSECONDS);
+        hashTimer.record(hashNanos, TimeUnit.NANOSECONDS);
+        writeTimer.record(writeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void artifactSkipped(String path) {
+        artifactsSkipped.increment();
+    }
+}
@@ -0,0 +1,153 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the files under a directory of any {@link java.nio.file.FileSystem}
+ */
+final class PathRegistryOutput implements RegistryOutput {
+
+    private final Path root;
+
+    /**
+     * The directories known to exist, so they are only created once
+     */
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Delete files before writing them, instead of truncating them
+     */
+    private final boolean replaceFiles;
+
+    private volatile boolean linksUnsupported;
+
+    PathRegistryOutput(Path root) {
+        this(root, false);
+    }
+
+    /**
+     * @param root the root directory of the registry
+     * @param replaceFiles true to delete the existing files before writing them, so the files they may be hard linked
+     *        to are not modified
+     */
+    PathRegistryOutput(Path root, boolean replaceFiles) {
+        this.root = root;
+        this.replaceFiles = replaceFiles;
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) throws IOException {
+        Path file = resolveForWrite(path);
+        if (replaceFiles) {
+            Files.deleteIfExists(file);
+        }
+        return Files.newOutputStream(file);
+    }
+
+    @Override
+    public InputStream newInputStream(String path) throws IOException {
+        return Files.newInputStream(root.resolve(path));
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return Files.exists(root.resolve(path));
+    }
+
+    @Override
+    public void alias(String source, String target, AliasStrategy strategy) throws IOException {
+        Path sourceFile = root.resolve(source);
+        Path targetFile = resolveForWrite(target);
+        if (strategy != AliasStrategy.COPY && !linksUnsupported) {
+            try {
+                Files.deleteIfExists(targetFile);
+                if (strategy == AliasStrategy.HARDLINK) {
+                    Files.createLink(targetFile, sourceFile);
+                } else {
+                    Files.createSymbolicLink(targetFile, targetFile.getParent().relativize(sourceFile));
+                }
+                return;
+            } catch (UnsupportedOperationException e) {
+                // Links are not supported by this file system, stop trying
+                linksUnsupported = true;
+            } catch (FileSystemException e) {
+                // Only stop trying when links may not work at all, other failures are about this file: copy it instead
+                if (isLinkUnsupported(e)) {
+                    linksUnsupported = true;
+                }
+            }
+        }
+        if (replaceFiles) {
+            Files.deleteIfExists(targetFile);
+        }
+        Files.copy(sourceFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void sync(Collection<String> paths) throws IOException {
+        Set<Path> parents = new HashSet<>();
+        try {
+            for (String path : paths) {
+                Path file = root.resolve(path);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                if (file.getParent() != null) {
+                    parents.add(file.getParent());
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // Not a durable file system, eg. a zip file system
+            return;
+        }
+        for (Path parent : parents) {
+            // Makes the new directory entries durable, not supported by every platform
+            try (FileChannel channel = FileChannel.open(parent, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException | UnsupportedOperationException e) {
+                // Best effort
+            }
+        }
+    }
+
+    /**
+     * The failures about the paths themselves (eg. {@link java.nio.file.AccessDeniedException},
+     * {@link java.nio.file.NoSuchFileException}) are subclasses. The generic exception is raised when links cannot be
+     * created in this file system (EPERM, EXDEV, EOPNOTSUPP...), its reason is the platform's localized message so it
+     * is not inspected: links are given up for the rest of the run, even if the failure was specific to a file.
+     */
+    static boolean isLinkUnsupported(FileSystemException e) {
+        return e.getClass() == FileSystemException.class;
+    }
+
+    private Path resolveForWrite(String path) throws IOException {
+        Path file = root.resolve(path);
+        Path parent = file.getParent();
+        if (parent != null && !directories.contains(parent)) {
+            Files.createDirectories(parent);
+            directories.add(parent);
+        }
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return root.toUri().toString();
+    }
+}
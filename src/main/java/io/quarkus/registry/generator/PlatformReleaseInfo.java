@@ -0,0 +1,220 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.ExtensionCatalog;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.catalog.json.JsonPlatformRelease;
+import io.quarkus.registry.catalog.json.JsonPlatformReleaseVersion;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The parts of a platform release {@link ExtensionCatalog} needed to generate the registry.
+ * <p>
+ * Extensions and categories are not kept, so holding every platform release ever published stays cheap.
+ */
+final class PlatformReleaseInfo {
+
+    private final String platformKey;
+
+    private final String streamId;
+
+    private final String version;
+
+    private final List<String> memberBoms;
+
+    private final String quarkusCoreVersion;
+
+    private final String upstreamQuarkusCoreVersion;
+
+    PlatformReleaseInfo(String platformKey, String streamId, String version, List<String> memberBoms,
+            String quarkusCoreVersion, String upstreamQuarkusCoreVersion) {
+        this.platformKey = platformKey;
+        this.streamId = streamId;
+        this.version = version;
+        this.memberBoms = memberBoms;
+        this.quarkusCoreVersion = quarkusCoreVersion;
+        this.upstreamQuarkusCoreVersion = upstreamQuarkusCoreVersion;
+    }
+
+    /**
+     * Projects a platform release catalog
+     *
+     * @param platformKey the platform key, or <code>null</code> to use the one of the platform release metadata
+     * @param catalog the platform release catalog
+     * @return the projection of the catalog
+     */
+    static PlatformReleaseInfo of(String platformKey, ExtensionCatalog catalog) {
+        Map<String, Object> metadata = (Map<String, Object>) catalog.getMetadata().get("platform-release");
+        if (metadata == null) {
+            throw new IllegalArgumentException("No platform-release metadata found in catalog " + catalog.getId());
+        }
+        return new PlatformReleaseInfo(
+                platformKey == null ? (String) metadata.get("platform-key") : platformKey,
+                (String) metadata.get("stream"),
+                (String) metadata.get("version"),
+                (List<String>) metadata.get("members"),
+                catalog.getQuarkusCoreVersion(),
+                catalog.getUpstreamQuarkusCoreVersion());
+    }
+
+    /**
+     * Reads the projection of a platform release catalog JSON with the streaming parser, skipping everything else.
+     *
+     * @param in the catalog JSON, not closed by this method
+     * @return the projection of the catalog
+     * @throws IOException if the JSON could not be read or is not a platform release catalog
+     */
+    static PlatformReleaseInfo read(InputStream in) throws IOException {
+        try (JsonParser parser = JsonCatalogMapperHelper.mapper().getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads the projection from the next JSON object of the parser, which may be a whole catalog or the minimal catalog
+     * written by {@link #write(JsonGenerator)}
+     */
+    static PlatformReleaseInfo read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+        String quarkusCoreVersion = null;
+        String upstreamQuarkusCoreVersion = null;
+        PlatformReleaseInfo platformRelease = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("quarkus-core-version".equals(field)) {
+                quarkusCoreVersion = parser.getValueAsString();
+            } else if ("upstream-quarkus-core-version".equals(field)) {
+                upstreamQuarkusCoreVersion = parser.getValueAsString();
+            } else if ("metadata".equals(field) && token == JsonToken.START_OBJECT) {
+                platformRelease = readMetadata(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (platformRelease == null) {
+            throw new JsonParseException(parser, "No platform-release metadata found");
+        }
+        return new PlatformReleaseInfo(platformRelease.platformKey, platformRelease.streamId, platformRelease.version,
+                platformRelease.memberBoms, quarkusCoreVersion, upstreamQuarkusCoreVersion);
+    }
+
+    /**
+     * Reads the platform-release entry of the catalog metadata object
+     */
+    private static PlatformReleaseInfo readMetadata(JsonParser parser) throws IOException {
+        PlatformReleaseInfo platformRelease = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("platform-release".equals(field) && token == JsonToken.START_OBJECT) {
+                String platformKey = null;
+                String streamId = null;
+                String version = null;
+                List<String> memberBoms = new ArrayList<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String releaseField = parser.getCurrentName();
+                    JsonToken releaseToken = parser.nextToken();
+                    if ("platform-key".equals(releaseField)) {
+                        platformKey = parser.getValueAsString();
+                    } else if ("stream".equals(releaseField)) {
+                        streamId = parser.getValueAsString();
+                    } else if ("version".equals(releaseField)) {
+                        version = parser.getValueAsString();
+                    } else if ("members".equals(releaseField) && releaseToken == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            memberBoms.add(parser.getValueAsString());
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                platformRelease = new PlatformReleaseInfo(platformKey, streamId, version, memberBoms, null, null);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return platformRelease;
+    }
+
+    /**
+     * Writes the projection as the minimal catalog JSON object {@link #read(JsonParser)} reads it from
+     *
+     * @param generator the generator to write the object to
+     * @throws IOException if some IO exception occurs
+     */
+    void write(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("quarkus-core-version", quarkusCoreVersion);
+        generator.writeStringField("upstream-quarkus-core-version", upstreamQuarkusCoreVersion);
+        generator.writeObjectFieldStart("metadata");
+        generator.writeObjectFieldStart("platform-release");
+        generator.writeStringField("platform-key", platformKey);
+        generator.writeStringField("stream", streamId);
+        generator.writeStringField("version", version);
+        generator.writeArrayFieldStart("members");
+        for (String memberBom : memberBoms) {
+            generator.writeString(memberBom);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    String getPlatformKey() {
+        return platformKey;
+    }
+
+    String getStreamId() {
+        return streamId;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    List<String> getMemberBoms() {
+        return memberBoms;
+    }
+
+    String getQuarkusCoreVersion() {
+        return quarkusCoreVersion;
+    }
+
+    String getUpstreamQuarkusCoreVersion() {
+        return upstreamQuarkusCoreVersion;
+    }
+
+    /**
+     * @return a new {@link JsonPlatformRelease} for this release
+     */
+    JsonPlatformRelease toPlatformRelease() {
+        JsonPlatformRelease release = new JsonPlatformRelease();
+        release.setQuarkusCoreVersion(quarkusCoreVersion);
+        release.setUpstreamQuarkusCoreVersion(upstreamQuarkusCoreVersion);
+        release.setVersion(JsonPlatformReleaseVersion.fromString(version));
+        release.setMemberBoms(memberBoms.stream().map(ArtifactCoords::fromString).collect(toList()));
+        return release;
+    }
+
+    @Override
+    public String toString() {
+        return platformKey + ":" + streamId + ":" + version + " (Quarkus " + Objects.toString(quarkusCoreVersion) + ")";
+    }
+}
@@ -0,0 +1,26 @@
+package io.quarkus.registry.generator;
+
+/**
+ * How a generation replaces the registry served from the output directory
+ */
+public enum PublishMode {
+
+    /**
+     * Write over the files of the output directory, clients may see a partially generated registry
+     */
+    IN_PLACE,
+
+    /**
+     * Generate into a <code>.staging</code> sibling directory, then rename it to the output directory. This is not an
+     * atomic swap: the previous directory is renamed away just before, so the output directory is missing for the time
+     * of two renames. It is renamed back if the staging directory cannot be moved in place. Use {@link #SYMLINK} when
+     * clients must never see a missing directory.
+     */
+    RENAME,
+
+    /**
+     * Generate into a new sibling directory, then atomically point the output directory, which must be a symbolic link,
+     * to it. The previous generation is kept for the clients still reading it, older ones are deleted.
+     */
+    SYMLINK
+}
@@ -1,21 +1,48 @@
 package io.quarkus.registry.generator;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.quarkus.maven.ArtifactCoords;
 import io.quarkus.registry.Constants;
 import io.quarkus.registry.catalog.Extension;
@@ -27,7 +54,6 @@ import io.quarkus.registry.catalog.json.JsonExtensionCatalog;
 import io.quarkus.registry.catalog.json.JsonPlatform;
 import io.quarkus.registry.catalog.json.JsonPlatformCatalog;
 import io.quarkus.registry.catalog.json.JsonPlatformRelease;
-import io.quarkus.registry.catalog.json.JsonPlatformReleaseVersion;
 import io.quarkus.registry.catalog.json.JsonPlatformStream;
 import io.quarkus.registry.config.json.JsonRegistryConfig;
 import io.quarkus.registry.config.json.JsonRegistryDescriptorConfig;
@@ -40,25 +66,38 @@ import io.quarkus.registry.config.json.RegistriesConfigMapperHelper;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.sonatype.nexus.repository.metadata.model.RepositoryMetadata;
 
-import static io.quarkus.registry.generator.HashUtil.sha1;
 import static io.quarkus.registry.generator.MetadataGenerator.generateMetadata;
-import static java.nio.file.Files.copy;
-import static java.nio.file.Files.createDirectories;
-import static java.nio.file.Files.writeString;
-import static java.util.stream.Collectors.toList;
+import static java.nio.file.Files.newInputStream;
 
 /**
  * Generates a static maven repository structure for a given set of {@link ExtensionCatalog} and {@link Extension} objects.
  */
 public class RegistryGenerator implements Closeable {
 
+    private final RegistryOutput output;
+
+    /**
+     * The output directory, <code>null</code> if the output is not a directory
+     */
     private final Path outputDir;
 
-    private final Map<String, List<ExtensionCatalog>> catalogMap = new LinkedHashMap<>();
+    /**
+     * The Quarkus core version of each added platform release, by platform key
+     */
+    private final Map<String, List<String>> quarkusCoreVersions = new LinkedHashMap<>();
 
     private final List<Extension> extensionList = new ArrayList<>();
 
-    private static final String SHA1_EXTENSION = ".sha1";
+    /**
+     * The most recent release of each stream, by platform key. Streams are sorted by descending stream id.
+     */
+    private final Map<String, Map<String, StreamRelease>> platformIndex = new LinkedHashMap<>();
+
+    private static final Comparator<String> STREAM_ORDER = Comparator.comparing(Version::toSortable).reversed();
+
+    private static final String LATEST_NON_PLATFORM_ALIAS = "quarkus-non-platform-extensions-1.0-SNAPSHOT.json";
+
+    private static final int BUFFER_SIZE = 8192;
 
     private String groupId = Constants.DEFAULT_REGISTRY_GROUP_ID;
     private String registryId = Constants.DEFAULT_REGISTRY_ID;
@@ -66,17 +105,59 @@ public class RegistryGenerator implements Closeable {
     private boolean supportsNonPlatforms = true;
     private boolean quarkusVersionsExclusiveProvider;
     private String quarkusVersionExpression;
+    private ExecutorService executor;
+    private boolean extensionsSerializedOnce;
+    private boolean compatibilityFiltering;
+    private boolean compression;
+    private int compressionLevel = Deflater.BEST_COMPRESSION;
+    private GzipCompressor compressor;
+    private PublishMode publishMode = PublishMode.IN_PLACE;
+    private Set<ChecksumAlgorithm> checksums = EnumSet.of(ChecksumAlgorithm.SHA1);
+    /**
+     * The checksums computed while writing, SHA-1 is always needed to detect changes
+     */
+    private Set<ChecksumAlgorithm> digests = EnumSet.of(ChecksumAlgorithm.SHA1);
+
+    /**
+     * The output of the running generation, a staging directory when not publishing in place
+     */
+    private RegistryOutput generationOutput;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private AliasStrategy aliasStrategy = AliasStrategy.COPY;
+    private boolean incremental;
+    private GenerationManifest previousManifest;
+    private GenerationManifest manifest;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    /**
+     * Notified of the generation progress, <code>null</code> when there is no listener so nothing is measured
+     */
+    private GenerationListener listener;
+    private InputCache inputCache;
+    private final ExtensionInterner interner = new ExtensionInterner();
+    private int writerThreads;
+    private int writeQueueCapacity;
+    private SyncMode syncMode = SyncMode.NONE;
+    /**
+     * The write-behind pipeline of the running generation, if enabled
+     */
+    private WriteBehindRegistryOutput writeBehind;
 
     private final Date now = new Date();
 
     public RegistryGenerator(Path outputDir) {
-        this.outputDir = outputDir;
+        this(RegistryOutput.directory(outputDir));
+    }
+
+    /**
+     * @param output where the generated files are written
+     */
+    public RegistryGenerator(RegistryOutput output) {
+        this.output = Objects.requireNonNull(output, "output");
+        this.outputDir = output instanceof PathRegistryOutput ? ((PathRegistryOutput) output).getRoot() : null;
     }
 
     public RegistryGenerator add(ExtensionCatalog catalog) {
-        Map<String, Object> metadata = (Map<String, Object>) catalog.getMetadata().get("platform-release");
-        String platformKey = (String) metadata.get("platform-key");
-        return add(platformKey, catalog);
+        return add(PlatformReleaseInfo.of(null, catalog));
     }
 
     /**
@@ -86,21 +167,130 @@ public class RegistryGenerator implements Closeable {
      * @return this instance, for method chaining purposes
      */
     public RegistryGenerator add(String platformKey, ExtensionCatalog catalog) {
-        catalogMap.computeIfAbsent(platformKey, s -> new ArrayList<>()).add(catalog);
+        return add(PlatformReleaseInfo.of(platformKey, catalog));
+    }
+
+    /**
+     * Add a platform release catalog JSON file. Only the platform release information is read, the extensions it
+     * contains are skipped.
+     *
+     * @param catalogJson the platform release catalog JSON file
+     * @return this instance, for method chaining purposes
+     * @throws IOException if the file could not be read or is not a platform release catalog
+     */
+    public RegistryGenerator add(Path catalogJson) throws IOException {
+        if (inputCache != null) {
+            PlatformReleaseInfo info = inputCache.read(catalogJson).getPlatformRelease();
+            if (info == null) {
+                throw new IOException(catalogJson + " is not a platform release catalog");
+            }
+            return add(info);
+        }
+        try (InputStream in = newInputStream(catalogJson)) {
+            return add(in);
+        }
+    }
+
+    /**
+     * Add a platform release catalog JSON. Only the platform release information is read, the extensions it
+     * contains are skipped.
+     *
+     * @param catalogJson the platform release catalog JSON, not closed by this method
+     * @return this instance, for method chaining purposes
+     * @throws IOException if the JSON could not be read or is not a platform release catalog
+     */
+    public RegistryGenerator add(InputStream catalogJson) throws IOException {
+        return add(PlatformReleaseInfo.read(catalogJson));
+    }
+
+    /**
+     * Add every platform release catalog and extension descriptor found in a directory tree. JSON files are read as
+     * platform release catalogs, or as extensions if they have no platform release metadata, and YAML files as
+     * extensions, like the <code>quarkus-extension.yaml</code> of the extension jars.
+     * <p>
+     * The files are parsed in parallel, then added in the order of their paths, so the result does not depend on the
+     * parsing order.
+     *
+     * @param directory the root of the directory tree
+     * @return this instance, for method chaining purposes
+     * @throws IOException if the tree could not be read, or one of the files could not be parsed
+     */
+    public RegistryGenerator addAll(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(file -> CatalogInput.isInput(file) && Files.isRegularFile(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<CatalogInput> inputs;
+        try {
+            // A parallel stream keeps the encounter order, and runs in the pool it is collected from
+            inputs = pool.submit(() -> files.parallelStream().map(this::read).collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while reading " + directory);
+            ex.initCause(e);
+            throw ex;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            rethrow(cause instanceof UncheckedIOException ? cause.getCause() : cause);
+            throw new IllegalStateException(e);
+        } finally {
+            pool.shutdown();
+        }
+        for (CatalogInput input : inputs) {
+            input.addTo(this);
+        }
+        return this;
+    }
+
+    private CatalogInput read(Path file) {
+        try {
+            return inputCache == null ? CatalogInput.read(file) : inputCache.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(new IOException("Could not read " + file + ": " + e.getMessage(), e));
+        }
+    }
+
+    RegistryGenerator add(PlatformReleaseInfo info) {
+        String platformKey = info.getPlatformKey();
+        quarkusCoreVersions.computeIfAbsent(platformKey, s -> new ArrayList<>()).add(info.getQuarkusCoreVersion());
+        String streamId = info.getStreamId();
+        // Only keep the most recent release of each stream, the latest added wins between equal versions
+        Map<String, StreamRelease> streams = platformIndex.computeIfAbsent(platformKey, key -> new TreeMap<>(STREAM_ORDER));
+        StreamRelease best = streams.get(streamId);
+        VersionKey versionKey = VersionKey.of(info.getVersion());
+        if (best == null || versionKey.compareTo(best.version) >= 0) {
+            // Keep the id of the stream first added, like the TreeMap does
+            streams.put(streamId,
+                    new StreamRelease(best == null ? streamId : best.streamId, versionKey, info.toPlatformRelease()));
+        }
         return this;
     }
 
     /**
-     * Add an {@link Extension} that is not part of any platform (eg. Quarkiverse)
+     * Add an {@link Extension} that is not part of any platform (eg. Quarkiverse). The generator keeps its own copy,
+     * with unmodifiable metadata shared with the other extensions, and an extension equal to one already added is
+     * replaced by the first copy.
      *
-     * @param extension the extension to be included
+     * @param extension the extension to be included, not modified
      * @return this instance, for method chaining purposes
      */
     public RegistryGenerator add(Extension extension) {
-        extensionList.add(extension);
+        // The same extension is often added from several sources, only keep one instance
+        extensionList.add(interner.intern(extension));
         return this;
     }
 
+    /**
+     * @return how much the deduplication of the extensions added so far saved
+     */
+    public InterningStatistics getInterningStatistics() {
+        return interner.getStatistics();
+    }
+
     /**
      * Use this group ID for all generated metadata.
      *
@@ -143,30 +333,433 @@ public class RegistryGenerator implements Closeable {
         return this;
     }
 
+    /**
+     * Use this strategy to create the <code>1.0-SNAPSHOT</code> alias files. Links fall back to copies when the file
+     * system does not support them.
+     *
+     * @param aliasStrategy the strategy to use, {@link AliasStrategy#COPY} by default
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withAliasStrategy(AliasStrategy aliasStrategy) {
+        this.aliasStrategy = Objects.requireNonNull(aliasStrategy, "aliasStrategy");
+        return this;
+    }
+
+    /**
+     * Only write the artifacts whose content changed since the previous incremental generation in the same output
+     * directory. Unchanged artifacts keep their timestamped files, snapshot version and <code>maven-metadata.xml</code>.
+     * <p>
+     * The content checksum of every artifact is kept in <code>.meta/generation-manifest.txt</code>. Each artifact is
+     * serialized in memory first, to be compared with its previous checksum.
+     *
+     * @param incremental true to only write the changed artifacts
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * Serialize the non-platform extensions once and reuse the encoded JSON in the catalog of every Quarkus version.
+     * The generated catalogs are equivalent, but the extensions are not indented as part of the catalog.
+     *
+     * @param extensionsSerializedOnce true to serialize the non-platform extensions only once
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withExtensionsSerializedOnce(boolean extensionsSerializedOnce) {
+        this.extensionsSerializedOnce = extensionsSerializedOnce;
+        return this;
+    }
+
+    /**
+     * Only list in the non-platform extensions catalog of a Quarkus version the extensions compatible with it, based on
+     * the <code>built-with-quarkus-core</code> extension metadata. Extensions without it are listed for every version.
+     *
+     * @param compatibilityFiltering true to filter the non-platform extensions by Quarkus version
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withCompatibilityFiltering(boolean compatibilityFiltering) {
+        this.compatibilityFiltering = compatibilityFiltering;
+        return this;
+    }
+
+    /**
+     * Run the generation stages concurrently on the given {@link ExecutorService}.
+     * <p>
+     * The calling thread takes part in the generation, so the executor may be shared and as small as a single thread.
+     * The executor is not shut down by this generator.
+     *
+     * @param executor the executor to use, or <code>null</code> to generate sequentially
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withExecutor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Limit the number of non-platform catalogs generated at the same time when an executor is configured.
+     * The submission of new catalogs blocks until one of the running catalogs is written.
+     *
+     * @param parallelism the maximum number of non-platform catalogs in flight
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Write a gzip compressed copy of every generated JSON and XML file next to it, with the <code>.gz</code> extension.
+     * Files are compressed on the configured executor, or on a pool of {@link #withParallelism(int)} threads created
+     * for the generation.
+     *
+     * @param compression true to write the compressed copy of the generated files
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withCompression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Use this compression level for the compressed copy of the generated files. Defaults to
+     * {@link Deflater#BEST_COMPRESSION}.
+     *
+     * @param compressionLevel the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Write these checksums as sidecar files next to every generated artifact. All the checksums are computed in a
+     * single pass over the written bytes.
+     *
+     * @param checksums the checksums to write, only {@link ChecksumAlgorithm#SHA1} by default
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withChecksums(ChecksumAlgorithm... checksums) {
+        Set<ChecksumAlgorithm> algorithms = EnumSet.noneOf(ChecksumAlgorithm.class);
+        algorithms.addAll(Arrays.asList(checksums));
+        this.checksums = algorithms;
+        this.digests = EnumSet.copyOf(algorithms);
+        this.digests.add(ChecksumAlgorithm.SHA1);
+        return this;
+    }
+
+    /**
+     * Choose how the generated registry replaces the one in the output directory. Publish modes other than
+     * {@link PublishMode#IN_PLACE} require the generator to write to a directory.
+     *
+     * @param publishMode the publish mode, {@link PublishMode#IN_PLACE} by default
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withPublishMode(PublishMode publishMode) {
+        this.publishMode = Objects.requireNonNull(publishMode, "publishMode");
+        return this;
+    }
+
+    /**
+     * Keep the inputs parsed by {@link #add(Path)} and {@link #addAll(Path)} in a cache directory, in a compact binary
+     * form. The next runs read the unchanged input files from the cache instead of parsing them again. The least
+     * recently used entries are evicted when generating, once the cache exceeds the given size.
+     * <p>
+     * Must be called before adding the input files.
+     *
+     * @param directory the cache directory, created if needed
+     * @param maxSize the size budget of the cache, in bytes
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withInputCache(Path directory, long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+        }
+        this.inputCache = new InputCache(Objects.requireNonNull(directory, "directory"), maxSize);
+        return this;
+    }
+
+    /**
+     * Notify the given listener of the generation progress. Stage and artifact timings are only measured when at least
+     * one listener is registered.
+     *
+     * @param listener the listener to add, called from the generation threads
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+        this.listener = listeners.size() == 1 ? listener : new CompositeGenerationListener(listeners);
+        return this;
+    }
+
+    /**
+     * Write the generated files on background writer threads, so serializing does not wait for the output. The files
+     * are queued in memory, the generation blocks while the queue is full. A file that could not be written fails the
+     * generation, with the failure of the first such file in write order. When the stages run concurrently (see
+     * {@link #withExecutor(ExecutorService)}), their files are flushed and synced together once they all completed.
+     *
+     * @param writerThreads the number of writer threads, 0 to write the files from the generation threads (default)
+     * @param queueCapacity the number of files that can be queued
+     * @param syncMode when the written files are synced to the storage device, must be {@link SyncMode#NONE} without
+     *        writer threads
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryGenerator withWriteBehind(int writerThreads, int queueCapacity, SyncMode syncMode) {
+        if (writerThreads < 0 || (writerThreads > 0 && queueCapacity < 1)) {
+            throw new IllegalArgumentException("Invalid write-behind configuration: " + writerThreads + " threads, "
+                    + queueCapacity + " queued files");
+        }
+        if (writerThreads == 0 && syncMode != SyncMode.NONE) {
+            throw new IllegalArgumentException("Sync mode " + syncMode + " requires writer threads");
+        }
+        this.writerThreads = writerThreads;
+        this.writeQueueCapacity = queueCapacity;
+        this.syncMode = Objects.requireNonNull(syncMode, "syncMode");
+        return this;
+    }
+
     /**
      * Perform the generation on the given data
      *
-     * @return the {@link Path} of the output directory
+     * @return the {@link Path} of the output directory, <code>null</code> if the output is not a directory
      * @throws IOException if some IO error occurs
      */
     public Path generate() throws IOException {
-        generateRepositoryMetadata();
-        generateConfig();
-        generatePlatforms();
-        generateNonPlatformExtensions();
+        if (inputCache != null) {
+            inputCache.evict();
+        }
+        if (publishMode == PublishMode.IN_PLACE) {
+            generate(output);
+            return outputDir;
+        }
+        if (outputDir == null) {
+            throw new IllegalStateException("Publish mode " + publishMode + " requires an output directory");
+        }
+        DirectoryPublisher publisher = new DirectoryPublisher(outputDir, publishMode);
+        Path staging = publisher.stage();
+        try {
+            // The staging files are hard links to the live ones, replace them instead of writing through them
+            generate(new PathRegistryOutput(staging, true));
+            publisher.publish(staging);
+        } catch (IOException | RuntimeException | Error e) {
+            try {
+                publisher.discard(staging);
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
         return outputDir;
     }
 
+    private void generate(RegistryOutput generationOutput) throws IOException {
+        // The write events measure the actual writes, made by the writer threads with write-behind
+        this.generationOutput = new EventRegistryOutput(generationOutput);
+        if (writerThreads > 0) {
+            writeBehind = new WriteBehindRegistryOutput(this.generationOutput, writerThreads, writeQueueCapacity,
+                    syncMode);
+            this.generationOutput = writeBehind;
+        }
+        GenerationListener listener = this.listener;
+        long start = 0;
+        if (listener != null) {
+            listener.generationStarted();
+            start = System.nanoTime();
+        }
+        Throwable failure = null;
+        try {
+            generateFiles();
+            if (writeBehind != null) {
+                writeBehind.close();
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            failure = e;
+            if (writeBehind != null) {
+                try {
+                    writeBehind.close();
+                } catch (IOException ex) {
+                    if (ex != e) {
+                        e.addSuppressed(ex);
+                    }
+                }
+            }
+            throw e;
+        } finally {
+            this.generationOutput = null;
+            this.writeBehind = null;
+            if (listener != null) {
+                listener.generationCompleted(System.nanoTime() - start, failure);
+            }
+        }
+    }
+
+    private void generateFiles() throws IOException {
+        String manifestFile = ".meta/" + GenerationManifest.FILE_NAME;
+        if (incremental) {
+            previousManifest = GenerationManifest.read(generationOutput, manifestFile);
+            manifest = new GenerationManifest();
+        }
+        ExecutorService compressionPool = null;
+        if (compression) {
+            // Never the generation executor: compress() blocks its caller until a compression completes
+            compressionPool = Executors.newFixedThreadPool(parallelism);
+            compressor = new GzipCompressor(generationOutput, compressionLevel, compressionPool, parallelism);
+        }
+        try {
+            Throwable failure = null;
+            try {
+                generateStages();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            if (compressor != null) {
+                // Wait for the compressed files even if a stage failed, so nothing is written after returning
+                failure = addFailure(failure, compressor.await());
+            }
+            rethrow(failure);
+        } finally {
+            compressor = null;
+            if (compressionPool != null) {
+                compressionPool.shutdownNow();
+            }
+        }
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+        if (manifest != null) {
+            // Only record the manifest once all the artifacts it describes were written
+            manifest.write(generationOutput, manifestFile);
+        }
+    }
+
+    private void generateStages() throws IOException {
+        if (executor == null) {
+            for (GenerationStage stage : GenerationStage.values()) {
+                runStage(stage);
+            }
+        } else {
+            // Each stage writes to its own directory and only reads the shared state
+            List<Future<?>> stages = List.of(
+                    executor.submit(stage(() -> runStage(GenerationStage.REPOSITORY_METADATA))),
+                    executor.submit(stage(() -> runStage(GenerationStage.CONFIG))),
+                    executor.submit(stage(() -> runStage(GenerationStage.PLATFORMS))));
+            Throwable nonPlatformFailure = null;
+            try {
+                runStage(GenerationStage.NON_PLATFORM_EXTENSIONS);
+            } catch (Throwable e) {
+                // Even an error must wait for the submitted stages, so nothing is written after returning
+                nonPlatformFailure = e;
+            }
+            // Report failures in stage order, regardless of which one failed first
+            Throwable failure = null;
+            for (Future<?> stage : stages) {
+                failure = addFailure(failure, await(stage));
+            }
+            rethrow(addFailure(failure, nonPlatformFailure));
+        }
+    }
+
+    /**
+     * Runs a single stage, in place and without the incremental manifest, to measure it on its own
+     *
+     * @param stage the stage to run
+     * @throws IOException if some IO error occurs
+     */
+    void generateStage(GenerationStage stage) throws IOException {
+        generationOutput = new EventRegistryOutput(output);
+        try {
+            generate(stage);
+        } finally {
+            generationOutput = null;
+        }
+    }
+
+    /**
+     * Runs a stage, notifying the listener
+     */
+    private void runStage(GenerationStage stage) throws IOException {
+        GenerationEvents.StageEvent event = new GenerationEvents.StageEvent();
+        event.begin();
+        if (listener == null) {
+            generate(stage);
+            commit(event, stage);
+            return;
+        }
+        listener.stageStarted(stage);
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            generate(stage);
+        } catch (IOException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            listener.stageCompleted(stage, System.nanoTime() - start, failure);
+        }
+        commit(event, stage);
+    }
+
+    private static void commit(GenerationEvents.StageEvent event, GenerationStage stage) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = stage.name();
+            event.commit();
+        }
+    }
+
+    private void generate(GenerationStage stage) throws IOException {
+        switch (stage) {
+            case REPOSITORY_METADATA:
+                generateRepositoryMetadata();
+                break;
+            case CONFIG:
+                generateConfig();
+                break;
+            case PLATFORMS:
+                generatePlatforms();
+                break;
+            case NON_PLATFORM_EXTENSIONS:
+                generateNonPlatformExtensions();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown stage " + stage);
+        }
+        if (writeBehind != null && executor == null) {
+            // Fails the stage if one of its files could not be written, and syncs them when syncing by stage.
+            // Concurrent stages share the queue, they are flushed together once they all completed.
+            writeBehind.flush();
+        }
+    }
+
     @Override
     public void close() throws IOException {
         generate();
     }
 
     private void generateRepositoryMetadata() throws IOException {
-        var descriptorDir = createDirectories(outputDir.resolve(".meta"));
+        var descriptorDir = ".meta";
         // Create prefixes.txt
-        writeString(descriptorDir.resolve("prefixes.txt"), "## repository-prefixes/2.0" + System.lineSeparator()
-                + "/" + groupId.replace('.', '/'));
+        String prefixes = "## repository-prefixes/2.0" + System.lineSeparator() + "/" + groupId.replace('.', '/');
+        String prefixesFile = resolve(descriptorDir, "prefixes.txt");
+        if (manifest == null || isModified(".meta/prefixes.txt", HashUtil.sha1(prefixes), prefixesFile)) {
+            long start = listener != null ? System.nanoTime() : 0;
+            writeString(prefixesFile, prefixes);
+            if (listener != null) {
+                listener.artifactWritten(prefixesFile, prefixes.getBytes(StandardCharsets.UTF_8).length, 0, 0,
+                        System.nanoTime() - start);
+            }
+        } else {
+            skipped(prefixesFile);
+        }
         // Create repository-metadata.xml and repository-metadata.sha1
         RepositoryMetadata repositoryMetadata = new RepositoryMetadata();
         repositoryMetadata.setVersion(RepositoryMetadata.MODEL_VERSION);
@@ -174,9 +767,19 @@ public class RegistryGenerator implements Closeable {
         repositoryMetadata.setUrl(registryUrl);
         repositoryMetadata.setLayout(RepositoryMetadata.LAYOUT_MAVEN2);
         repositoryMetadata.setPolicy(RepositoryMetadata.POLICY_SNAPSHOT);
-        var metadataString = MetadataGenerator.toString(repositoryMetadata);
-        writeString(descriptorDir.resolve("repository-metadata.xml"), metadataString);
-        writeString(descriptorDir.resolve("repository-metadata.xml.sha1"), sha1(metadataString));
+        String repositoryMetadataFile = resolve(descriptorDir, "repository-metadata.xml");
+        Content content = out -> MetadataGenerator.write(repositoryMetadata, out);
+        if (manifest == null) {
+            writeWithChecksum(repositoryMetadataFile, content);
+        } else {
+            Rendered rendered = render(repositoryMetadataFile, null, content);
+            if (isModified(".meta/repository-metadata.xml", rendered.sha1, repositoryMetadataFile)
+                    || !isWritten(repositoryMetadataFile)) {
+                writeWithChecksum(repositoryMetadataFile, rendered);
+            } else {
+                skipped(repositoryMetadataFile);
+            }
+        }
     }
 
     /**
@@ -190,8 +793,7 @@ public class RegistryGenerator implements Closeable {
      * @throws IOException if some IO exception occurs
      */
     private void generateConfig() throws IOException {
-        var descriptorDir = createDirectories(
-                outputDir.resolve(groupId.replace('.', '/') + "/quarkus-registry-descriptor/1.0-SNAPSHOT"));
+        var descriptorDir = groupId.replace('.', '/') + "/quarkus-registry-descriptor/1.0-SNAPSHOT";
         final JsonRegistryConfig qer = new JsonRegistryConfig();
         qer.setId(registryId);
 
@@ -229,26 +831,8 @@ public class RegistryGenerator implements Closeable {
         mavenRepo.setId(registryId);
         mavenRepo.setUrl(registryUrl);
 
-        var contents = RegistriesConfigMapperHelper.jsonMapper().writeValueAsString(qer);
-
-        // Generate metadata
-        Metadata metadata = generateMetadata(new ArtifactCoords(groupId, "quarkus-registry-descriptor", "1.0-SNAPSHOT"), now,
-                Collections.emptyList());
-        var metadataString = MetadataGenerator.toString(metadata);
-        writeString(descriptorDir.resolve("maven-metadata.xml"), metadataString);
-        writeString(descriptorDir.resolve("maven-metadata.xml.sha1"), sha1(metadataString));
-
-        String timestampedJsonFile = String.format("quarkus-registry-descriptor-%s.json",
-                metadata.getVersioning().getSnapshotVersions().get(0).getVersion());
-        writeString(descriptorDir.resolve(timestampedJsonFile), contents);
-        writeString(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION), sha1(contents));
-
-        copy(descriptorDir.resolve(timestampedJsonFile), descriptorDir.resolve("quarkus-registry-descriptor-1.0-SNAPSHOT.json"),
-                StandardCopyOption.REPLACE_EXISTING);
-        copy(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION),
-                descriptorDir.resolve("quarkus-registry-descriptor-1.0-SNAPSHOT.json" + SHA1_EXTENSION),
-                StandardCopyOption.REPLACE_EXISTING);
-
+        generateSnapshot(descriptorDir, "quarkus-registry-descriptor", Collections.emptyList(),
+                out -> RegistriesConfigMapperHelper.jsonMapper().writeValue(out, qer));
     }
 
     /**
@@ -262,51 +846,25 @@ public class RegistryGenerator implements Closeable {
      * @throws IOException if some IO exception occurs
      */
     private void generatePlatforms() throws IOException {
-        var descriptorDir = createDirectories(outputDir.resolve(groupId.replace('.', '/') + "/quarkus-platforms/1.0-SNAPSHOT"));
+        var descriptorDir = groupId.replace('.', '/') + "/quarkus-platforms/1.0-SNAPSHOT";
 
         final JsonPlatformCatalog platformCatalog = new JsonPlatformCatalog();
 
-        // Sort by release (Final > CR) and then by stream id
-        Comparator<PlatformRelease> compareRelease = ((o1, o2) -> Version.VERSION_COMPARATOR
-                .compare(o1.getVersion().toString(), o2.getVersion().toString()));
-
-        catalogMap.forEach((platformKey, catalogs) -> {
+        platformIndex.forEach((platformKey, streams) -> {
             // Create a new platform because they are immutable
             JsonPlatform jsonPlatform = new JsonPlatform();
             jsonPlatform.setPlatformKey(platformKey);
 
-            Map<String, JsonPlatformStream> streams = new TreeMap<>(Comparator.comparing(Version::toSortable).reversed());
-            for (ExtensionCatalog catalog : catalogs) {
-                Map<String, Object> platformReleaseMetadata = (Map<String, Object>) catalog.getMetadata()
-                        .get("platform-release");
-                String streamId = (String) platformReleaseMetadata.get("stream");
-                String version = (String) platformReleaseMetadata.get("version");
-                List<String> memberBoms = (List<String>) platformReleaseMetadata.get("members");
-                JsonPlatformStream stream = streams.computeIfAbsent(streamId, key -> {
-                    JsonPlatformStream newStream = new JsonPlatformStream();
-                    newStream.setId(key);
-                    return newStream;
-                });
-                JsonPlatformRelease release = new JsonPlatformRelease();
-                release.setQuarkusCoreVersion(catalog.getQuarkusCoreVersion());
-                release.setUpstreamQuarkusCoreVersion(catalog.getUpstreamQuarkusCoreVersion());
-                release.setVersion(JsonPlatformReleaseVersion.fromString(version));
-                release.setMemberBoms(memberBoms.stream().map(ArtifactCoords::fromString).collect(toList()));
-
-                if (stream.getReleases().isEmpty()) {
-                    stream.addRelease(release);
-                } else {
-                    // Order all releases
-                    List<PlatformRelease> sortedReleases = new ArrayList<>();
-                    sortedReleases.add(release);
-                    sortedReleases.addAll(stream.getReleases());
-                    sortedReleases.sort(compareRelease);
-                    stream.setReleases(List.of(sortedReleases.get(0)));
-                }
+            // Sort by release (Final > CR), the streams are already sorted by stream id
+            List<StreamRelease> orderedReleases = new ArrayList<>(streams.values());
+            orderedReleases.sort((r1, r2) -> Version.QUALIFIER_REVERSED_KEY_COMPARATOR.compare(r1.version, r2.version));
+            List<PlatformStream> orderedStreams = new ArrayList<>(orderedReleases.size());
+            for (StreamRelease streamRelease : orderedReleases) {
+                JsonPlatformStream stream = new JsonPlatformStream();
+                stream.setId(streamRelease.streamId);
+                stream.addRelease(streamRelease.release);
+                orderedStreams.add(stream);
             }
-            List<PlatformStream> orderedStreams = new ArrayList<>(streams.values());
-            orderedStreams.sort((p1, p2) -> Version.QUALIFIER_REVERSED_COMPARATOR.compare(
-                    p1.getRecommendedRelease().getVersion().toString(), p2.getRecommendedRelease().getVersion().toString()));
             jsonPlatform.setStreams(orderedStreams);
             platformCatalog.addPlatform(jsonPlatform);
         });
@@ -318,23 +876,41 @@ public class RegistryGenerator implements Closeable {
                 .map(PlatformRelease::getQuarkusCoreVersion)
                 .collect(Collectors.toSet());
 
-        Metadata metadata = generateMetadata(new ArtifactCoords(groupId, "quarkus-platforms", "1.0-SNAPSHOT"), now,
-                quarkusVersions);
-        var metadataString = MetadataGenerator.toString(metadata);
-        writeString(descriptorDir.resolve("maven-metadata.xml"), metadataString);
-        writeString(descriptorDir.resolve("maven-metadata.xml.sha1"), sha1(metadataString));
-
-        var timestampedJsonFile = String.format("quarkus-platforms-%s.json",
-                metadata.getVersioning().getSnapshotVersions().get(0).getVersion());
-        var contents = JsonCatalogMapperHelper.mapper().writeValueAsString(platformCatalog);
-        writeString(descriptorDir.resolve(timestampedJsonFile), contents);
-        writeString(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION), sha1(contents));
+        generateSnapshot(descriptorDir, "quarkus-platforms", quarkusVersions,
+                out -> JsonCatalogMapperHelper.mapper().writeValue(out, platformCatalog));
+    }
 
-        copy(descriptorDir.resolve(timestampedJsonFile), descriptorDir.resolve("quarkus-platforms-1.0-SNAPSHOT.json"),
-                StandardCopyOption.REPLACE_EXISTING);
-        copy(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION),
-                descriptorDir.resolve("quarkus-platforms-1.0-SNAPSHOT.json" + SHA1_EXTENSION),
-                StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Writes the <code>maven-metadata.xml</code>, the timestamped JSON artifact and its <code>1.0-SNAPSHOT</code> alias.
+     * In incremental mode, nothing is written if the JSON content did not change since the previous generation.
+     */
+    private void generateSnapshot(String descriptorDir, String artifactId, Collection<String> quarkusVersions,
+            Content content) throws IOException {
+        Metadata metadata = generateMetadata(new ArtifactCoords(groupId, artifactId, "1.0-SNAPSHOT"), now,
+                quarkusVersions);
+        String snapshotVersion = metadata.getVersioning().getSnapshotVersions().get(0).getVersion();
+        String metadataFile = resolve(descriptorDir, "maven-metadata.xml");
+        String timestampedJsonFile = resolve(descriptorDir, String.format("%s-%s.json", artifactId, snapshotVersion));
+        String aliasJsonFile = resolve(descriptorDir, artifactId + "-1.0-SNAPSHOT.json");
+        if (manifest == null) {
+            writeWithChecksum(metadataFile, out -> MetadataGenerator.write(metadata, out));
+            willAliasWithChecksum(timestampedJsonFile, 1);
+            writeWithChecksum(timestampedJsonFile, content);
+        } else {
+            Rendered rendered = render(timestampedJsonFile, null, content);
+            GenerationManifest.Entry previous = unchanged(artifactId, rendered.sha1);
+            if (previous != null && isWritten(metadataFile) && isWritten(aliasJsonFile)
+                    && isWritten(resolve(descriptorDir, String.format("%s-%s.json", artifactId, previous.getVersion())))) {
+                manifest.put(artifactId, previous);
+                skipped(timestampedJsonFile);
+                return;
+            }
+            writeWithChecksum(metadataFile, out -> MetadataGenerator.write(metadata, out));
+            willAliasWithChecksum(timestampedJsonFile, 1);
+            writeWithChecksum(timestampedJsonFile, rendered);
+            manifest.put(artifactId, rendered.sha1, snapshotVersion);
+        }
+        aliasWithChecksum(timestampedJsonFile, aliasJsonFile);
     }
 
     /**
@@ -350,57 +926,491 @@ public class RegistryGenerator implements Closeable {
      * @throws IOException
      */
     private void generateNonPlatformExtensions() throws IOException {
-        var descriptorDir = createDirectories(
-                outputDir.resolve(groupId.replace('.', '/') + "/quarkus-non-platform-extensions/1.0-SNAPSHOT"));
+        var descriptorDir = groupId.replace('.', '/') + "/quarkus-non-platform-extensions/1.0-SNAPSHOT";
         // Generate metadata
-        Metadata metadata = generateMetadata(new ArtifactCoords(groupId,
-                        "quarkus-non-platform-extensions",
-                        "1.0-SNAPSHOT"),
+        ArtifactCoords artifact = new ArtifactCoords(groupId,
+                "quarkus-non-platform-extensions",
+                "1.0-SNAPSHOT");
+        Metadata metadata = generateMetadata(artifact,
                 now,
                 Collections.emptyList());
-        String metadataString = MetadataGenerator.toString(metadata);
-        writeString(descriptorDir.resolve("maven-metadata.xml"), metadataString);
-        writeString(descriptorDir.resolve("maven-metadata.xml.sha1"), sha1(metadataString));
-
-        Collection<String> quarkusVersions = getQuarkusVersions();
-        // Generate a JSON per Quarkus version
-        for (String quarkusVersion : quarkusVersions) {
-            JsonExtensionCatalog jsonExtensionCatalog = new JsonExtensionCatalog();
-            jsonExtensionCatalog.setId(new ArtifactCoords(groupId,
-                    "quarkus-non-platform-extensions",
-                    quarkusVersion,
-                    "json",
-                    "1.0-SNAPSHOT").toString());
-            jsonExtensionCatalog.setBom(ArtifactCoords.pom("io.quarkus.platform", "quarkus-bom", quarkusVersion));
-            extensionList.forEach(jsonExtensionCatalog::addExtension);
-            var contents = JsonCatalogMapperHelper.mapper().writeValueAsString(jsonExtensionCatalog);
-            var timestampedJsonFile = String.format("quarkus-non-platform-extensions-%s-%s.json",
-                    metadata.getVersioning().getSnapshotVersions().get(0).getVersion(), quarkusVersion);
-            writeString(descriptorDir.resolve(timestampedJsonFile), contents);
-            writeString(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION), sha1(contents));
-            copy(descriptorDir.resolve(timestampedJsonFile), descriptorDir.resolve(
-                            String.format("quarkus-non-platform-extensions-1.0-SNAPSHOT-%s.json", quarkusVersion)),
-                    StandardCopyOption.REPLACE_EXISTING);
-            copy(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION), descriptorDir.resolve(
-                            String.format("quarkus-non-platform-extensions-1.0-SNAPSHOT-%s.json" + SHA1_EXTENSION, quarkusVersion)),
-                    StandardCopyOption.REPLACE_EXISTING);
-
-            // Create a fixed quarkus-non-platform-extensions-1.0-SNAPSHOT.json
-            copy(descriptorDir.resolve(timestampedJsonFile), descriptorDir.resolve(
-                            "quarkus-non-platform-extensions-1.0-SNAPSHOT.json"),
-                    StandardCopyOption.REPLACE_EXISTING);
-            copy(descriptorDir.resolve(timestampedJsonFile + SHA1_EXTENSION), descriptorDir.resolve(
-                            "quarkus-non-platform-extensions-1.0-SNAPSHOT.json" + SHA1_EXTENSION),
-                    StandardCopyOption.REPLACE_EXISTING);
-
-        }
-    }
-
-    private Collection<String> getQuarkusVersions() {
-        return catalogMap.values().stream()
+        if (manifest == null) {
+            writeWithChecksum(resolve(descriptorDir, "maven-metadata.xml"), out -> MetadataGenerator.write(metadata, out));
+        }
+
+        List<String> quarkusVersions = getQuarkusVersions();
+        String snapshotVersion = metadata.getVersioning().getSnapshotVersions().get(0).getVersion();
+        // The same Quarkus version may be declared by many catalogs, generate its JSON only once
+        Set<String> distinctVersions = new LinkedHashSet<>(quarkusVersions);
+        CompatibilityIndex compatibilityIndex = compatibilityFiltering
+                ? CompatibilityIndex.of(extensionList, distinctVersions)
+                : null;
+        // The extensions of each version, versions listing the same extensions share the same list
+        Map<String, List<Extension>> versionExtensions = new HashMap<>();
+        for (String quarkusVersion : distinctVersions) {
+            versionExtensions.put(quarkusVersion,
+                    compatibilityIndex == null ? extensionList : compatibilityIndex.getExtensions(quarkusVersion));
+        }
+        Map<List<Extension>, SerializedString> extensionsJson = new IdentityHashMap<>();
+        if (extensionsSerializedOnce) {
+            for (List<Extension> extensions : versionExtensions.values()) {
+                if (!extensions.isEmpty() && !extensionsJson.containsKey(extensions)) {
+                    SerializedString json = new SerializedString(
+                            JsonCatalogMapperHelper.mapper().writeValueAsString(extensions));
+                    // Encode once, all versions write the cached UTF-8 bytes
+                    json.asUnquotedUTF8();
+                    extensionsJson.put(extensions, json);
+                }
+            }
+        }
+        // The snapshot version of each catalog, which differ in incremental mode
+        Map<String, String> catalogVersions = new ConcurrentHashMap<>();
+        // The latest version is aliased right after its catalog is written, while outputs may still hold its content
+        String latestVersion = quarkusVersions.isEmpty() ? null : quarkusVersions.get(quarkusVersions.size() - 1);
+        AtomicBoolean latestAliased = new AtomicBoolean();
+        if (executor == null) {
+            for (String quarkusVersion : distinctVersions) {
+                List<Extension> extensions = versionExtensions.get(quarkusVersion);
+                catalogVersions.put(quarkusVersion, generateNonPlatformExtensions(descriptorDir, snapshotVersion,
+                        quarkusVersion, extensions, extensionsJson.get(extensions),
+                        quarkusVersion.equals(latestVersion) ? latestAliased : null));
+            }
+        } else {
+            // Bound the number of catalogs held in memory at the same time
+            Semaphore permits = new Semaphore(parallelism);
+            AtomicBoolean failed = new AtomicBoolean();
+            List<Future<?>> tasks = new ArrayList<>(distinctVersions.size());
+            Throwable failure = null;
+            for (String quarkusVersion : distinctVersions) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    InterruptedIOException ex = new InterruptedIOException("Interrupted while generating non-platform catalogs");
+                    ex.initCause(e);
+                    failure = ex;
+                    break;
+                }
+                if (failed.get()) {
+                    // Stop submitting once a catalog failed
+                    permits.release();
+                    break;
+                }
+                List<Extension> extensions = versionExtensions.get(quarkusVersion);
+                SerializedString sharedExtensionsJson = extensionsJson.get(extensions);
+                AtomicBoolean aliased = quarkusVersion.equals(latestVersion) ? latestAliased : null;
+                tasks.add(executor.submit(() -> {
+                    try {
+                        catalogVersions.put(quarkusVersion, generateNonPlatformExtensions(descriptorDir, snapshotVersion,
+                                quarkusVersion, extensions, sharedExtensionsJson, aliased));
+                    } catch (IOException | RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            Throwable taskFailure = null;
+            for (Future<?> task : tasks) {
+                taskFailure = addFailure(taskFailure, await(task));
+            }
+            rethrow(addFailure(taskFailure, failure));
+        }
+
+        // The fixed quarkus-non-platform-extensions-1.0-SNAPSHOT.json points to the last version in order
+        String latestJsonFile = null;
+        if (latestVersion != null) {
+            latestJsonFile = resolve(descriptorDir, String.format("quarkus-non-platform-extensions-%s-%s.json",
+                    catalogVersions.get(latestVersion), latestVersion));
+        }
+        String latestAliasFile = resolve(descriptorDir, LATEST_NON_PLATFORM_ALIAS);
+        if (manifest == null) {
+            return;
+        }
+        // The metadata and the latest alias only change if one of the catalogs or the set of versions changed
+        Map<String, String> classifierVersions = new LinkedHashMap<>();
+        StringBuilder state = new StringBuilder(Objects.toString(latestJsonFile, ""));
+        for (String quarkusVersion : distinctVersions) {
+            String catalogVersion = catalogVersions.get(quarkusVersion);
+            classifierVersions.put(quarkusVersion, catalogVersion);
+            state.append('\n').append(quarkusVersion).append('=').append(catalogVersion);
+        }
+        String stateSha1 = HashUtil.sha1(state.toString());
+        String metadataFile = resolve(descriptorDir, "maven-metadata.xml");
+        GenerationManifest.Entry previous = unchanged(artifact.getArtifactId(), stateSha1);
+        if (previous != null && isWritten(metadataFile) && (latestJsonFile == null || isWritten(latestAliasFile))) {
+            manifest.put(artifact.getArtifactId(), previous);
+            skipped(metadataFile);
+            return;
+        }
+        Metadata incrementalMetadata = generateMetadata(artifact, now, classifierVersions);
+        writeWithChecksum(metadataFile, out -> MetadataGenerator.write(incrementalMetadata, out));
+        if (latestJsonFile != null && !latestAliased.get()) {
+            // The latest catalog did not change, but the previous alias may point to another version
+            aliasWithChecksum(latestJsonFile, latestAliasFile);
+        }
+        manifest.put(artifact.getArtifactId(), stateSha1, snapshotVersion);
+    }
+
+    /**
+     * Generates the non-platform extensions catalog for a single Quarkus version
+     *
+     * @param extensions the extensions to list in the catalog
+     * @param extensionsJson the already serialized extensions array, or <code>null</code> to serialize the extensions
+     * @param latestAliased <code>null</code> unless this is the latest version, set once the catalog is also aliased as
+     *        the latest one
+     * @return the snapshot version of the catalog, which is the previous one if it did not change in incremental mode
+     */
+    private String generateNonPlatformExtensions(String descriptorDir, String snapshotVersion, String quarkusVersion,
+            List<Extension> extensions, SerializedString extensionsJson, AtomicBoolean latestAliased)
+            throws IOException {
+        JsonExtensionCatalog jsonExtensionCatalog = new JsonExtensionCatalog();
+        jsonExtensionCatalog.setId(new ArtifactCoords(groupId,
+                "quarkus-non-platform-extensions",
+                quarkusVersion,
+                "json",
+                "1.0-SNAPSHOT").toString());
+        jsonExtensionCatalog.setBom(ArtifactCoords.pom("io.quarkus.platform", "quarkus-bom", quarkusVersion));
+        Object contents;
+        if (extensionsJson == null) {
+            extensions.forEach(jsonExtensionCatalog::addExtension);
+            contents = jsonExtensionCatalog;
+        } else {
+            // Only the header changes between versions, append the shared extensions as they are
+            ObjectNode catalogNode = JsonCatalogMapperHelper.mapper().valueToTree(jsonExtensionCatalog);
+            catalogNode.putRawValue("extensions", new RawValue(extensionsJson));
+            contents = catalogNode;
+        }
+        Content content = out -> JsonCatalogMapperHelper.mapper().writeValue(out, contents);
+        var timestampedJsonFile = resolve(descriptorDir, String.format("quarkus-non-platform-extensions-%s-%s.json",
+                snapshotVersion, quarkusVersion));
+        var aliasJsonFile = resolve(descriptorDir,
+                String.format("quarkus-non-platform-extensions-1.0-SNAPSHOT-%s.json", quarkusVersion));
+        int aliases = latestAliased != null ? 2 : 1;
+        if (manifest == null) {
+            willAliasWithChecksum(timestampedJsonFile, aliases);
+            writeWithChecksum(timestampedJsonFile, quarkusVersion, content);
+        } else {
+            String key = "quarkus-non-platform-extensions:" + quarkusVersion;
+            Rendered rendered = render(timestampedJsonFile, quarkusVersion, content);
+            GenerationManifest.Entry previous = unchanged(key, rendered.sha1);
+            if (previous != null && isWritten(aliasJsonFile) && isWritten(resolve(descriptorDir,
+                    String.format("quarkus-non-platform-extensions-%s-%s.json", previous.getVersion(), quarkusVersion)))) {
+                manifest.put(key, previous);
+                skipped(timestampedJsonFile);
+                return previous.getVersion();
+            }
+            willAliasWithChecksum(timestampedJsonFile, aliases);
+            writeWithChecksum(timestampedJsonFile, rendered);
+            manifest.put(key, rendered.sha1, snapshotVersion);
+        }
+        aliasWithChecksum(timestampedJsonFile, aliasJsonFile);
+        if (latestAliased != null) {
+            aliasWithChecksum(timestampedJsonFile, resolve(descriptorDir, LATEST_NON_PLATFORM_ALIAS));
+            latestAliased.set(true);
+        }
+        return snapshotVersion;
+    }
+
+    /**
+     * Looks up an artifact in the manifest of the previous generation
+     *
+     * @return the previous manifest entry if the artifact content did not change, <code>null</code> otherwise
+     */
+    private GenerationManifest.Entry unchanged(String key, String sha1) {
+        GenerationManifest.Entry previous = previousManifest.get(key);
+        return previous != null && previous.getSha1().equals(sha1) ? previous : null;
+    }
+
+    /**
+     * Records a file that is not a snapshot in the manifest
+     *
+     * @return true if the file must be written
+     */
+    private boolean isModified(String key, String sha1, String file) {
+        manifest.put(key, sha1, GenerationManifest.NO_VERSION);
+        return unchanged(key, sha1) == null || !generationOutput.exists(file);
+    }
+
+    private void skipped(String file) {
+        if (listener != null) {
+            listener.artifactSkipped(file);
+        }
+    }
+
+    /**
+     * @return true if the file, its checksums and its compressed copy, when compression is enabled, exist
+     */
+    private boolean isWritten(String file) {
+        if (!generationOutput.exists(file)) {
+            return false;
+        }
+        for (ChecksumAlgorithm checksum : checksums) {
+            if (!generationOutput.exists(file + checksum.getExtension())) {
+                return false;
+            }
+        }
+        return compressor == null || generationOutput.exists(GzipCompressor.compressed(file));
+    }
+
+    /**
+     * Serializes the content in memory, computing its checksums on the way
+     *
+     * @param file the file the content will be written to
+     * @param quarkusVersion the Quarkus version of the content, if it is specific to one
+     */
+    private Rendered render(String file, String quarkusVersion, Content content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        boolean timed = listener != null;
+        HashUtil.ChecksumOutputStream out = HashUtil.checksumOutputStream(bytes, digests, timed);
+        GenerationEvents.SerializeEvent event = new GenerationEvents.SerializeEvent();
+        event.begin();
+        long start = timed ? System.nanoTime() : 0;
+        try (out) {
+            content.writeTo(out);
+        }
+        Map<ChecksumAlgorithm, String> values = out.getChecksums();
+        commit(event, file, quarkusVersion, out.getCount());
+        // Copying to the in-memory buffer is part of the serialization
+        long serializeNanos = timed ? System.nanoTime() - start - out.getHashNanos() : 0;
+        return new Rendered(bytes, values, serializeNanos, out.getHashNanos());
+    }
+
+    /**
+     * Writes already rendered content and its checksum sidecar files
+     */
+    private void writeWithChecksum(String file, Rendered rendered) throws IOException {
+        long start = listener != null ? System.nanoTime() : 0;
+        try (OutputStream out = generationOutput.newOutputStream(file)) {
+            rendered.writeTo(out);
+        }
+        writeChecksums(file, rendered.checksums);
+        if (listener != null) {
+            listener.artifactWritten(file, rendered.bytes.size(), rendered.serializeNanos, rendered.hashNanos,
+                    System.nanoTime() - start);
+        }
+        if (compressor != null) {
+            compressor.compress(file, rendered.bytes);
+        }
+    }
+
+    /**
+     * Streams the content to the given file while computing its checksums, then writes them to the sidecar files.
+     * The content is never held in memory as a whole, unless it must be compressed.
+     *
+     * @param file the file to write
+     * @param content writes the content to the given stream
+     * @throws IOException if some IO exception occurs
+     */
+    private void writeWithChecksum(String file, Content content) throws IOException {
+        writeWithChecksum(file, null, content);
+    }
+
+    /**
+     * Like {@link #writeWithChecksum(String, Content)}, for content specific to a Quarkus version
+     */
+    private void writeWithChecksum(String file, String quarkusVersion, Content content) throws IOException {
+        if (compressor != null) {
+            // The compressed copy is written from the same bytes, on the worker pool
+            writeWithChecksum(file, render(file, quarkusVersion, content));
+            return;
+        }
+        boolean timed = listener != null;
+        long start = timed ? System.nanoTime() : 0;
+        GenerationEvents.SerializeEvent event = new GenerationEvents.SerializeEvent();
+        event.begin();
+        HashUtil.ChecksumOutputStream checksumOut = HashUtil.checksumOutputStream(
+                generationOutput.newOutputStream(file), digests, timed);
+        try (OutputStream out = new BufferedOutputStream(checksumOut, BUFFER_SIZE)) {
+            content.writeTo(out);
+        }
+        Map<ChecksumAlgorithm, String> values = checksumOut.getChecksums();
+        commit(event, file, quarkusVersion, checksumOut.getCount());
+        long checksumsStart = timed ? System.nanoTime() : 0;
+        writeChecksums(file, values);
+        if (timed) {
+            // Serialization is interleaved with hashing and writing, it takes whatever time is left
+            long end = System.nanoTime();
+            long writeNanos = checksumOut.getWriteNanos() + end - checksumsStart;
+            listener.artifactWritten(file, checksumOut.getCount(),
+                    end - start - writeNanos - checksumOut.getHashNanos(), checksumOut.getHashNanos(), writeNanos);
+        }
+    }
+
+    private static void commit(GenerationEvents.SerializeEvent event, String file, String quarkusVersion,
+            long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = file;
+            event.artifact = GenerationEvents.artifact(file);
+            event.quarkusVersion = quarkusVersion;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private void writeChecksums(String file, Map<ChecksumAlgorithm, String> values) throws IOException {
+        for (ChecksumAlgorithm checksum : checksums) {
+            writeString(file + checksum.getExtension(), values.get(checksum));
+        }
+    }
+
+    private void writeString(String file, String content) throws IOException {
+        try (OutputStream out = generationOutput.newOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Announces the aliases of a file and of its checksum sidecar and compressed files, before writing them
+     */
+    private void willAliasWithChecksum(String source, int aliases) {
+        generationOutput.willAlias(source, aliases);
+        for (ChecksumAlgorithm checksum : checksums) {
+            generationOutput.willAlias(source + checksum.getExtension(), aliases);
+        }
+        if (compressor != null) {
+            generationOutput.willAlias(GzipCompressor.compressed(source), aliases);
+        }
+    }
+
+    /**
+     * Creates the alias of a file and of its checksum sidecar files
+     */
+    private void aliasWithChecksum(String source, String target) throws IOException {
+        generationOutput.alias(source, target, aliasStrategy);
+        for (ChecksumAlgorithm checksum : checksums) {
+            generationOutput.alias(source + checksum.getExtension(), target + checksum.getExtension(), aliasStrategy);
+        }
+        if (compressor != null) {
+            compressor.afterCompressed(source, () -> generationOutput.alias(GzipCompressor.compressed(source),
+                    GzipCompressor.compressed(target), aliasStrategy));
+        }
+    }
+
+    private static String resolve(String directory, String file) {
+        return directory + '/' + file;
+    }
+
+    /**
+     * The most recent release of a platform stream
+     */
+    private static final class StreamRelease {
+
+        private final String streamId;
+
+        private final VersionKey version;
+
+        private final JsonPlatformRelease release;
+
+        private StreamRelease(String streamId, VersionKey version, JsonPlatformRelease release) {
+            this.streamId = streamId;
+            this.version = version;
+            this.release = release;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Content serialized in memory, with its checksums
+     */
+    private static final class Rendered implements Content {
+
+        private final ByteArrayOutputStream bytes;
+
+        private final Map<ChecksumAlgorithm, String> checksums;
+
+        private final String sha1;
+
+        private final long serializeNanos;
+
+        private final long hashNanos;
+
+        private Rendered(ByteArrayOutputStream bytes, Map<ChecksumAlgorithm, String> checksums, long serializeNanos,
+                long hashNanos) {
+            this.bytes = bytes;
+            this.checksums = checksums;
+            this.sha1 = checksums.get(ChecksumAlgorithm.SHA1);
+            this.serializeNanos = serializeNanos;
+            this.hashNanos = hashNanos;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+
+    private interface Stage {
+        void run() throws IOException;
+    }
+
+    private static Callable<Void> stage(Stage stage) {
+        return () -> {
+            stage.run();
+            return null;
+        };
+    }
+
+    /**
+     * Waits for the given stage to complete
+     *
+     * @return the failure of the stage, or <code>null</code> if it completed normally
+     */
+    private static Throwable await(Future<?> stage) {
+        try {
+            stage.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for generation");
+            ex.initCause(e);
+            return ex;
+        }
+    }
+
+    private static Throwable addFailure(Throwable failure, Throwable newFailure) {
+        if (failure == null) {
+            return newFailure;
+        }
+        // The write-behind output reports the same failure to every stage flushing it
+        if (newFailure != null && newFailure != failure
+                && !Arrays.asList(failure.getSuppressed()).contains(newFailure)) {
+            failure.addSuppressed(newFailure);
+        }
+        return failure;
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IOException(failure);
+    }
+
+    private List<String> getQuarkusVersions() {
+        return quarkusCoreVersions.values().stream()
                 .flatMap(Collection::stream)
-                .map(ExtensionCatalog::getQuarkusCoreVersion)
-                .sorted(Version.QUALIFIER_REVERSED_COMPARATOR)
+                .map(VersionKey::of)
+                .sorted(Version.QUALIFIER_REVERSED_KEY_COMPARATOR)
+                .map(VersionKey::getVersion)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Where a {@link RegistryGenerator} writes the generated files.
+ * <p>
+ * Files are identified by their path relative to the root of the registry, using <code>/</code> as separator
+ * (eg. <code>io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/maven-metadata.xml</code>). Implementations must support
+ * concurrent calls for different paths.
+ */
+public interface RegistryOutput {
+
+    /**
+     * Opens a stream to write a file, replacing it if it exists. Parent directories are created as needed.
+     * The file is complete once the stream is closed.
+     *
+     * @param path the path of the file
+     * @return the stream to write the file content to
+     * @throws IOException if the file could not be opened
+     */
+    OutputStream newOutputStream(String path) throws IOException;
+
+    /**
+     * Opens a stream to read a file previously written
+     *
+     * @param path the path of the file
+     * @return the stream to read the file content from
+     * @throws NoSuchFileException if the file does not exist
+     * @throws IOException if the file could not be opened
+     */
+    InputStream newInputStream(String path) throws IOException;
+
+    /**
+     * @param path the path of the file
+     * @return true if the file exists
+     */
+    boolean exists(String path);
+
+    /**
+     * Makes a file available under another path, replacing the target if it exists.
+     * Outputs that do not support links copy the file regardless of the strategy.
+     *
+     * @param source the path of the existing file
+     * @param target the path of the alias
+     * @param strategy how the alias should be created
+     * @throws IOException if the alias could not be created
+     */
+    default void alias(String source, String target, AliasStrategy strategy) throws IOException {
+        try (InputStream in = newInputStream(source); OutputStream out = newOutputStream(target)) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Announces that a file about to be written will be the source of the given number of aliases. Outputs that cannot
+     * read their files back (eg. a zip archive) keep its content until these aliases are created. Does nothing by
+     * default.
+     *
+     * @param source the path of the file, not written yet
+     * @param aliases the number of {@link #alias} calls that will use it as source
+     */
+    default void willAlias(String source, int aliases) {
+    }
+
+    /**
+     * Makes the given files durable, eg. by flushing them to the storage device. Does nothing by default, for outputs
+     * that are not durable.
+     *
+     * @param paths the paths of files written and closed
+     * @throws IOException if the files could not be synced
+     */
+    default void sync(Collection<String> paths) throws IOException {
+    }
+
+    /**
+     * @param directory the root directory of the registry
+     * @return an output writing the files under the given directory
+     */
+    static RegistryOutput directory(Path directory) {
+        return new PathRegistryOutput(directory);
+    }
+
+    /**
+     * @param fileSystem the file system, eg. a zip or an in-memory file system
+     * @return an output writing the files from the first root directory of the given file system
+     */
+    static RegistryOutput fileSystem(FileSystem fileSystem) {
+        return new PathRegistryOutput(fileSystem.getRootDirectories().iterator().next());
+    }
+
+    /**
+     * @param out the stream to write the archive to, closed with the returned output
+     * @return an output streaming the files into a zip archive, complete once closed
+     */
+    static ZipRegistryOutput zip(OutputStream out) {
+        return new ZipRegistryOutput(out, ZipRegistryOutput.DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param out the stream to write the archive to, closed with the returned output
+     * @param cacheSize the size in bytes of the cache of recent entries, used to read the files back
+     * @return an output streaming the files into a zip archive, complete once closed
+     */
+    static ZipRegistryOutput zip(OutputStream out, int cacheSize) {
+        return new ZipRegistryOutput(out, cacheSize);
+    }
+
+    /**
+     * @return an output keeping the files in memory
+     */
+    static InMemoryRegistryOutput inMemory() {
+        return new InMemoryRegistryOutput();
+    }
+}
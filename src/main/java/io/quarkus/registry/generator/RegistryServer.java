@@ -0,0 +1,184 @@
+package io.quarkus.registry.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves a registry generated in memory over HTTP, in the Maven repository layout expected by the Quarkus tools.
+ * <p>
+ * Every response carries the SHA-1 of the file as its <code>ETag</code>, so clients can revalidate with
+ * <code>If-None-Match</code> and get a <code>304 Not Modified</code> when the file did not change. The served registry
+ * is replaced atomically by {@link #publish(InMemoryRegistryOutput)}, requests in flight complete with the previous one.
+ */
+public final class RegistryServer implements Closeable {
+
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final HttpServer server;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(RegistryOutput.inMemory()));
+
+    private RegistryServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a server with no registry, every request is answered with a <code>404</code> until one is published
+     *
+     * @param address the address to listen to, use port 0 to pick any free port
+     * @param executor the executor handling the requests, <code>null</code> to handle them on the server thread
+     * @return the started server
+     * @throws IOException if the server could not be bound to the address
+     */
+    public static RegistryServer start(InetSocketAddress address, Executor executor) throws IOException {
+        HttpServer httpServer = HttpServer.create(address, 0);
+        RegistryServer server = new RegistryServer(httpServer);
+        httpServer.createContext("/", server::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return server;
+    }
+
+    /**
+     * Serves the given registry instead of the current one. The registry must not be modified afterwards.
+     *
+     * @param registry the generated registry
+     */
+    public void publish(InMemoryRegistryOutput registry) {
+        snapshot.set(new Snapshot(Objects.requireNonNull(registry, "registry")));
+    }
+
+    /**
+     * @return the address the server listens to, with the actual port
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        // Capture the snapshot once, so the content and its ETag always match
+        Snapshot current = snapshot.get();
+        String path = exchange.getRequestURI().getPath().substring(1);
+        byte[] content;
+        try {
+            content = current.registry.getBytes(path);
+        } catch (NoSuchFileException e) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        String etag = current.getETag(path, content);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache");
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        headers.set("Content-Type", contentType(path));
+        if (head) {
+            headers.set("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, content.length == 0 ? -1 : content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    /**
+     * @return true if the <code>If-None-Match</code> header lists the given strong ETag, weak ETags match as well
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".json")) {
+            return "application/json";
+        } else if (path.endsWith(".xml")) {
+            return "application/xml";
+        } else if (path.endsWith(".gz")) {
+            return "application/gzip";
+        } else if (path.endsWith(".txt") || path.endsWith(".sha1") || path.endsWith(".md5")
+                || path.endsWith(".sha256") || path.endsWith(".sha512")) {
+            return "text/plain; charset=utf-8";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * A published registry and the ETags of its files
+     */
+    private static final class Snapshot {
+
+        private final InMemoryRegistryOutput registry;
+
+        private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+        private Snapshot(InMemoryRegistryOutput registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Uses the SHA-1 sidecar written by the generator, computing the SHA-1 only for the files without one
+         */
+        private String getETag(String path, byte[] content) {
+            return etags.computeIfAbsent(path, p -> {
+                String sha1;
+                try {
+                    sha1 = new String(registry.getBytes(p + ChecksumAlgorithm.SHA1.getExtension()),
+                            StandardCharsets.UTF_8).trim();
+                } catch (NoSuchFileException e) {
+                    sha1 = HashUtil.sha1(content);
+                }
+                return '"' + sha1 + '"';
+            });
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package io.quarkus.registry.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Regenerates a registry whenever the catalogs in an input directory change.
+ * <p>
+ * The input directory and its subdirectories contain platform release catalogs and extension descriptors, read like
+ * {@link RegistryGenerator#addAll(Path)} does.
+ * Bursts of changes are debounced, then only the files that changed are parsed again. Each generation uses a new
+ * generator fed with all the parsed inputs, so the whole registry is computed again, but it runs incrementally: only
+ * the artifacts whose content changed are written.
+ */
+public final class RegistryWatcher implements Closeable {
+
+    private final Path inputDir;
+
+    private final Supplier<RegistryGenerator> generatorFactory;
+
+    private final WatchService watchService;
+
+    /**
+     * The watched directories, by key
+     */
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * The parsed input files, sorted so the generator always gets them in the same order
+     */
+    private final Map<Path, Input> inputs = new TreeMap<>();
+
+    private Duration debounce = Duration.ofSeconds(1);
+
+    private BiConsumer<Path, Exception> errorHandler = (path, e) -> {
+    };
+
+    private Consumer<Exception> generationErrorHandler = e -> {
+    };
+
+    /**
+     * @param inputDir the directory containing the input catalogs, directly or in subdirectories
+     * @param generatorFactory creates a generator configured with the output, called for every generation
+     * @throws IOException if the directory could not be watched
+     */
+    public RegistryWatcher(Path inputDir, Supplier<RegistryGenerator> generatorFactory) throws IOException {
+        this.inputDir = inputDir;
+        this.generatorFactory = Objects.requireNonNull(generatorFactory, "generatorFactory");
+        this.watchService = inputDir.getFileSystem().newWatchService();
+        register(inputDir);
+    }
+
+    /**
+     * Wait for the changes to stop for this long before regenerating
+     *
+     * @param debounce the quiet period, 1 second by default
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryWatcher withDebounce(Duration debounce) {
+        this.debounce = Objects.requireNonNull(debounce, "debounce");
+        return this;
+    }
+
+    /**
+     * Notify the given handler of the input files that could not be parsed. These files are skipped until they change
+     * again. By default they are silently skipped.
+     *
+     * @param errorHandler called with the file and the parsing failure
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryWatcher withErrorHandler(BiConsumer<Path, Exception> errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+        return this;
+    }
+
+    /**
+     * Notify the given handler of the generations that failed. The watcher keeps watching, the registry is generated
+     * again on the next change. By default the failures are silently ignored.
+     *
+     * @param generationErrorHandler called with the generation failure
+     * @return this instance, for method chaining purposes
+     */
+    public RegistryWatcher withGenerationErrorHandler(Consumer<Exception> generationErrorHandler) {
+        this.generationErrorHandler = Objects.requireNonNull(generationErrorHandler, "generationErrorHandler");
+        return this;
+    }
+
+    /**
+     * Generates the registry from the current input files, then regenerates it on every change until the watcher is
+     * closed or the thread interrupted. A failed generation is reported to the generation error handler and does not
+     * stop the watch.
+     */
+    public void run() {
+        try {
+            scan();
+            generate();
+        } catch (IOException | RuntimeException e) {
+            generationErrorHandler.accept(e);
+        }
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = false;
+                // Collect the whole burst before regenerating
+                while (key != null) {
+                    overflow |= collect(key, changed);
+                    key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                try {
+                    if (overflow ? scan() : refresh(changed)) {
+                        generate();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    generationErrorHandler.accept(e);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Closed, stop watching
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops watching, {@link #run()} returns once the running generation, if any, completes
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Watches the given directory and its subdirectories
+     */
+    private void register(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path dir : (Iterable<Path>) walk.filter(Files::isDirectory)::iterator) {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+            }
+        }
+    }
+
+    /**
+     * @return true if some events were lost and the whole directory must be scanned again
+     */
+    private boolean collect(WatchKey key, Set<Path> changed) {
+        Path dir = directories.get(key);
+        boolean overflow = dir == null;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                overflow = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            changed.add(path);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                // Files may have been created in the new directory before it was watched
+                try {
+                    register(path);
+                    changed.addAll(files(path));
+                } catch (IOException | UncheckedIOException e) {
+                    // Changed while being walked, scan everything again
+                    overflow = true;
+                }
+            }
+        }
+        if (!key.reset()) {
+            // The directory was deleted
+            directories.remove(key);
+        }
+        return overflow;
+    }
+
+    /**
+     * Parses the input files that changed since the last scan and forgets the deleted ones
+     *
+     * @return true if the inputs changed
+     */
+    private boolean scan() throws IOException {
+        // Watch the directories created while events were lost
+        register(inputDir);
+        Set<Path> files = new HashSet<>(inputs.keySet());
+        files.addAll(files(inputDir));
+        return refresh(files);
+    }
+
+    /**
+     * @return the regular files of the given directory and of its subdirectories
+     */
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Parses the given files again if they were modified
+     *
+     * @return true if the inputs changed
+     */
+    private boolean refresh(Set<Path> files) {
+        boolean modified = false;
+        for (Path file : files) {
+            if (!Files.exists(file)) {
+                // Deleted, along with the inputs it contained if it was a directory
+                modified |= inputs.keySet().removeIf(input -> input.startsWith(file));
+                continue;
+            }
+            if (!CatalogInput.isInput(file) || !Files.isRegularFile(file)) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Deleted
+                modified |= inputs.remove(file) != null;
+                continue;
+            }
+            Input previous = inputs.get(file);
+            if (previous != null && previous.isSame(attributes)) {
+                continue;
+            }
+            try {
+                inputs.put(file, new Input(attributes, CatalogInput.read(file)));
+            } catch (IOException | RuntimeException e) {
+                // Most likely still being written, it is parsed again on the next change
+                inputs.remove(file);
+                errorHandler.accept(file, e);
+            }
+            modified = true;
+        }
+        return modified;
+    }
+
+    private void generate() throws IOException {
+        RegistryGenerator generator = generatorFactory.get().withIncremental(true);
+        for (Input input : inputs.values()) {
+            input.catalog.addTo(generator);
+        }
+        generator.generate();
+    }
+
+    /**
+     * A parsed input file, with the attributes it was parsed with
+     */
+    private static final class Input {
+
+        private final FileTime lastModified;
+
+        private final long size;
+
+        private final CatalogInput catalog;
+
+        private Input(BasicFileAttributes attributes, CatalogInput catalog) {
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.catalog = catalog;
+        }
+
+        private boolean isSame(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
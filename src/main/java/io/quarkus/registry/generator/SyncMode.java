@@ -0,0 +1,25 @@
+package io.quarkus.registry.generator;
+
+/**
+ * When the files written through the write-behind pipeline are made durable
+ *
+ * @see RegistryGenerator#withWriteBehind(int, int, SyncMode)
+ */
+public enum SyncMode {
+
+    /**
+     * Never sync, leave it to the operating system
+     */
+    NONE,
+
+    /**
+     * Sync each file once written
+     */
+    FILE,
+
+    /**
+     * Sync the files written by each stage together, once the stage completes. Stages running concurrently are synced
+     * together, once they all completed.
+     */
+    STAGE
+}
@@ -1,25 +1,32 @@
 package io.quarkus.registry.generator;
 
 import java.util.Comparator;
-import java.util.Objects;
-
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 
 class Version {
 
     /**
      * Order versions based on the qualifier. Final > CR1
      */
-    public static final Comparator<String> QUALIFIER_REVERSED_COMPARATOR = ((o1, o2) -> {
-        String o1Qualifier = new DefaultArtifactVersion(o1).getQualifier();
-        String o2Qualifier = new DefaultArtifactVersion(o2).getQualifier();
+    public static final Comparator<VersionKey> QUALIFIER_REVERSED_KEY_COMPARATOR = ((o1, o2) -> {
+        String o1Qualifier = o1.getQualifier();
+        String o2Qualifier = o2.getQualifier();
         if (o1Qualifier == null || o2Qualifier == null) {
             return 0;
         } else {
             return o2Qualifier.compareTo(o1Qualifier);
         }
     });
-    public static final Comparator<String> VERSION_COMPARATOR = (Comparator.comparing(DefaultArtifactVersion::new).reversed());
+
+    /**
+     * Order versions based on the qualifier. Final > CR1
+     */
+    public static final Comparator<String> QUALIFIER_REVERSED_COMPARATOR = ((o1, o2) -> QUALIFIER_REVERSED_KEY_COMPARATOR
+            .compare(VersionKey.of(o1), VersionKey.of(o2)));
+
+    public static final Comparator<VersionKey> VERSION_KEY_COMPARATOR = Comparator.<VersionKey> naturalOrder().reversed();
+
+    public static final Comparator<String> VERSION_COMPARATOR = ((o1, o2) -> VERSION_KEY_COMPARATOR
+            .compare(VersionKey.of(o1), VersionKey.of(o2)));
 
     /**
      * Converts a version to an appropriate stream key
@@ -28,8 +35,8 @@ class Version {
      * @return
      */
     public static String toStreamId(String version) {
-        DefaultArtifactVersion dav = new DefaultArtifactVersion(version);
-        return String.format("%s.%s", dav.getMajorVersion(), dav.getMinorVersion());
+        VersionKey key = VersionKey.of(version);
+        return key.getMajorVersion() + "." + key.getMinorVersion();
     }
 
     /**
@@ -40,20 +47,6 @@ class Version {
      * @return a version lexicographically sortable
      */
     public static String toSortable(String version) {
-        DefaultArtifactVersion dav = new DefaultArtifactVersion(version);
-        String qualifier = Objects.toString(dav.getQualifier(), "");
-        // getQualifier does not work in some cases. Eg. 1.2.3.Final-redhat-00001
-        if (!version.endsWith(qualifier)) {
-            int idx = version.indexOf(qualifier);
-            qualifier = version.substring(idx);
-        }
-        if (!qualifier.isEmpty()) {
-            qualifier = "." + qualifier;
-        }
-        return String.format("%05d.%05d.%05d%s",
-                             dav.getMajorVersion(),
-                             dav.getMinorVersion(),
-                             dav.getIncrementalVersion(),
-                             qualifier);
+        return VersionKey.of(version).toSortable();
     }
 }
@@ -0,0 +1,154 @@
+package io.quarkus.registry.generator;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+/**
+ * A version parsed once, so sorting versions does not parse them on every comparison.
+ * <p>
+ * Keys are interned in a bounded cache: the same version string returns the same instance until the cache is full.
+ */
+final class VersionKey implements Comparable<VersionKey> {
+
+    private static final int MAX_CACHE_SIZE = 8192;
+
+    private static final Map<String, VersionKey> CACHE = new ConcurrentHashMap<>();
+
+    private final String version;
+
+    private final int majorVersion;
+
+    private final int minorVersion;
+
+    private final int incrementalVersion;
+
+    /**
+     * The qualifier as returned by {@link DefaultArtifactVersion#getQualifier()}, may be <code>null</code>
+     */
+    private final String qualifier;
+
+    private final ComparableVersion comparable;
+
+    private final String sortable;
+
+    private VersionKey(String version) {
+        DefaultArtifactVersion dav = new DefaultArtifactVersion(version);
+        this.version = version;
+        this.majorVersion = dav.getMajorVersion();
+        this.minorVersion = dav.getMinorVersion();
+        this.incrementalVersion = dav.getIncrementalVersion();
+        this.qualifier = dav.getQualifier();
+        this.comparable = new ComparableVersion(version);
+        this.sortable = toSortable(version, majorVersion, minorVersion, incrementalVersion, qualifier);
+    }
+
+    /**
+     * Returns the key of the given version
+     *
+     * @param version the version to parse
+     * @return the cached key of the version
+     */
+    static VersionKey of(String version) {
+        VersionKey key = CACHE.get(version);
+        if (key == null) {
+            key = new VersionKey(version);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                // Versions seen by a generator are few, only unbounded inputs get here
+                CACHE.clear();
+            }
+            VersionKey existing = CACHE.putIfAbsent(version, key);
+            if (existing != null) {
+                key = existing;
+            }
+        }
+        return key;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    int getMajorVersion() {
+        return majorVersion;
+    }
+
+    int getMinorVersion() {
+        return minorVersion;
+    }
+
+    int getIncrementalVersion() {
+        return incrementalVersion;
+    }
+
+    String getQualifier() {
+        return qualifier;
+    }
+
+    /**
+     * @return the version formatted to be lexicographically sortable. Eg. 1.2.3.Final -> 00001.00002.00003.Final
+     */
+    String toSortable() {
+        return sortable;
+    }
+
+    /**
+     * Compares the versions the same way {@link DefaultArtifactVersion#compareTo} does
+     */
+    @Override
+    public int compareTo(VersionKey o) {
+        return comparable.compareTo(o.comparable);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return version.equals(((VersionKey) o).version);
+    }
+
+    @Override
+    public int hashCode() {
+        return version.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return version;
+    }
+
+    private static String toSortable(String version, int major, int minor, int incremental, String qualifier) {
+        String sortableQualifier = Objects.toString(qualifier, "");
+        // getQualifier does not work in some cases. Eg. 1.2.3.Final-redhat-00001
+        if (!version.endsWith(sortableQualifier)) {
+            int idx = version.indexOf(sortableQualifier);
+            sortableQualifier = version.substring(idx);
+        }
+        StringBuilder sb = new StringBuilder(18 + sortableQualifier.length());
+        pad(sb, major).append('.');
+        pad(sb, minor).append('.');
+        pad(sb, incremental);
+        if (!sortableQualifier.isEmpty()) {
+            sb.append('.').append(sortableQualifier);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Same as <code>String.format("%05d", number)</code>
+     */
+    private static StringBuilder pad(StringBuilder sb, int number) {
+        String digits = Integer.toString(number);
+        for (int i = digits.length(); i < 5; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits);
+    }
+}
@@ -0,0 +1,293 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the files of the decorated output on background writer threads.
+ * <p>
+ * Closing a stream only queues its content, the producers are only blocked while the bounded queue is full. The writers
+ * drain the queue in batches. Files queued but not written yet are read from memory, and aliases wait for their source
+ * to be written.
+ * <p>
+ * Write failures are reported by {@link #flush()} and {@link #close()}: the failure of the first file queued among
+ * the failed ones is thrown, so the same failures are always reported the same way regardless of the thread
+ * scheduling.
+ */
+final class WriteBehindRegistryOutput implements RegistryOutput {
+
+    private static final int BATCH_SIZE = 64;
+
+    private final RegistryOutput delegate;
+
+    private final SyncMode syncMode;
+
+    private final BlockingQueue<Job> queue;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The content of the files queued but not written yet
+     */
+    private final Map<String, byte[]> pendingContent = new ConcurrentHashMap<>();
+
+    /**
+     * Completed once the last queued write of each path is done
+     */
+    private final Map<String, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Every queued job, until it completes
+     */
+    private final Map<Long, CompletableFuture<Void>> inFlight = new ConcurrentSkipListMap<>();
+
+    /**
+     * The written files waiting for the next flush, when syncing by stage
+     */
+    private final Map<String, Boolean> unsynced = new ConcurrentHashMap<>();
+
+    private final Map<Long, IOException> failures = new ConcurrentSkipListMap<>();
+
+    /**
+     * The id of the first failed job in queue order, the later jobs are skipped
+     */
+    private final AtomicLong firstFailure = new AtomicLong(Long.MAX_VALUE);
+
+    private IOException reported;
+
+    /**
+     * @param delegate the output to write to
+     * @param threads the number of writer threads
+     * @param capacity the number of files that can be queued before the producers block
+     * @param syncMode when the written files are synced
+     */
+    WriteBehindRegistryOutput(RegistryOutput delegate, int threads, int capacity, SyncMode syncMode) {
+        this.delegate = delegate;
+        this.syncMode = syncMode;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < threads; i++) {
+            Thread writer = new Thread(this::drain, "registry-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) {
+        return new ByteArrayOutputStream() {
+
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    byte[] content = toByteArray();
+                    pendingContent.put(path, content);
+                    enqueue(path, () -> {
+                        try (OutputStream out = delegate.newOutputStream(path)) {
+                            out.write(content);
+                        }
+                        pendingContent.remove(path, content);
+                    });
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream newInputStream(String path) throws IOException {
+        byte[] content = pendingContent.get(path);
+        if (content != null) {
+            return new ByteArrayInputStream(content);
+        }
+        awaitWrite(path);
+        return delegate.newInputStream(path);
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return pendingContent.containsKey(path) || pendingWrites.containsKey(path) || delegate.exists(path);
+    }
+
+    @Override
+    public void willAlias(String source, int aliases) {
+        // Announced before the write of the source is queued, so the delegate sees it first
+        delegate.willAlias(source, aliases);
+    }
+
+    @Override
+    public void alias(String source, String target, AliasStrategy strategy) throws IOException {
+        CompletableFuture<Void> sourceWritten = pendingWrites.get(source);
+        // Read the alias from the output once written
+        pendingContent.remove(target);
+        enqueue(target, () -> {
+            if (sourceWritten != null) {
+                // Already taken from the queue, as it was queued first
+                sourceWritten.join();
+            }
+            delegate.alias(source, target, strategy);
+        });
+    }
+
+    /**
+     * Waits for the files queued so far to be written, then syncs them when syncing by stage
+     *
+     * @throws IOException the failure of the first failed file
+     */
+    void flush() throws IOException {
+        for (CompletableFuture<Void> job : new ArrayList<>(inFlight.values())) {
+            try {
+                job.join();
+            } catch (RuntimeException e) {
+                // Recorded in the failures
+            }
+        }
+        throwFailure();
+        if (syncMode == SyncMode.STAGE && !unsynced.isEmpty()) {
+            List<String> paths = new ArrayList<>(unsynced.keySet());
+            delegate.sync(paths);
+            paths.forEach(unsynced::remove);
+        }
+    }
+
+    /**
+     * Writes the remaining files and stops the writer threads
+     *
+     * @throws IOException the failure of the first failed file
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (Thread writer : writers) {
+                writer.interrupt();
+            }
+        }
+    }
+
+    private void enqueue(String path, Write write) throws IOException {
+        long id = sequence.incrementAndGet();
+        Job job = new Job(id, path, write);
+        inFlight.put(id, job.done);
+        job.previous = pendingWrites.put(path, job.done);
+        try {
+            queue.put(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.remove(id);
+            pendingWrites.remove(path, job.done);
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while queuing " + path);
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+
+    private void drain() {
+        List<Job> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (Job job : batch) {
+                    run(job);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        }
+    }
+
+    private void run(Job job) {
+        try {
+            if (job.previous != null) {
+                // Writes of the same path are applied in order, the previous one was taken from the queue first
+                job.previous.join();
+            }
+            // Once a file failed, the generation fails anyway: skip the writes queued after it. The writes queued
+            // before it still run, so the failure of the first failing file in queue order is the one reported.
+            if (job.id < firstFailure.get()) {
+                job.write.run();
+                if (syncMode == SyncMode.FILE) {
+                    delegate.sync(List.of(job.path));
+                } else if (syncMode == SyncMode.STAGE) {
+                    unsynced.put(job.path, Boolean.TRUE);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            firstFailure.accumulateAndGet(job.id, Math::min);
+            failures.put(job.id, e instanceof IOException ? (IOException) e
+                    : new IOException("Could not write " + job.path, e));
+        } finally {
+            pendingWrites.remove(job.path, job.done);
+            inFlight.remove(job.id);
+            job.done.complete(null);
+        }
+    }
+
+    private void awaitWrite(String path) {
+        CompletableFuture<Void> write = pendingWrites.get(path);
+        if (write != null) {
+            write.join();
+        }
+    }
+
+    private synchronized void throwFailure() throws IOException {
+        if (reported == null && !failures.isEmpty()) {
+            for (IOException e : failures.values()) {
+                if (reported == null) {
+                    reported = e;
+                } else {
+                    reported.addSuppressed(e);
+                }
+            }
+        }
+        if (reported != null) {
+            throw reported;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static final class Job {
+
+        private final long id;
+
+        private final String path;
+
+        private final Write write;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /**
+         * The previous queued write of the same path, if it was still pending
+         */
+        private CompletableFuture<Void> previous;
+
+        private Job(long id, String path, Write write) {
+            this.id = id;
+            this.path = path;
+            this.write = write;
+        }
+    }
+}
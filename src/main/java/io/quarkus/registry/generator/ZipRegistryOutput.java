@@ -0,0 +1,191 @@
+package io.quarkus.registry.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the generated files into a single zip archive, with the same layout as the directory output.
+ * <p>
+ * Each file is buffered until its stream is closed, then written as one entry. Since entries cannot be read back from
+ * the archive, the content of the files announced with {@link #willAlias} is kept until their aliases are written, and
+ * the most recently written entries are kept in a cache bounded by size, to read the files without generating them
+ * again.
+ * <p>
+ * The archive is complete once this output is closed.
+ */
+public final class ZipRegistryOutput implements RegistryOutput, Closeable {
+
+    /**
+     * The default size of the cache of recent entries, in bytes
+     */
+    public static final int DEFAULT_CACHE_SIZE = 32 * 1024 * 1024;
+
+    private final ZipOutputStream zip;
+
+    private final long time = System.currentTimeMillis();
+
+    private final int cacheSize;
+
+    // Guarded by this
+
+    private final Set<String> entries = new HashSet<>();
+
+    private final Map<String, byte[]> recentEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long recentEntriesSize;
+
+    /**
+     * The number of aliases still to be written, by source
+     */
+    private final Map<String, Integer> pendingAliases = new HashMap<>();
+
+    /**
+     * The content of the sources with pending aliases, regardless of the cache size
+     */
+    private final Map<String, byte[]> aliasSources = new HashMap<>();
+
+    private boolean closed;
+
+    ZipRegistryOutput(OutputStream out, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
+        this.zip = new ZipOutputStream(out);
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) {
+        return new ByteArrayOutputStream() {
+
+            private boolean written;
+
+            @Override
+            public void close() throws IOException {
+                if (!written) {
+                    written = true;
+                    writeFile(path, toByteArray());
+                }
+            }
+        };
+    }
+
+    @Override
+    public synchronized InputStream newInputStream(String path) throws IOException {
+        return new ByteArrayInputStream(getRecentEntry(path));
+    }
+
+    @Override
+    public synchronized boolean exists(String path) {
+        return entries.contains(path);
+    }
+
+    @Override
+    public synchronized void willAlias(String source, int aliases) {
+        if (aliases > 0) {
+            pendingAliases.merge(source, aliases, Integer::sum);
+        }
+    }
+
+    /**
+     * Writes the alias as a new entry with the same content, which must have been announced with {@link #willAlias} or
+     * still be in the cache of recent entries
+     */
+    @Override
+    public synchronized void alias(String source, String target, AliasStrategy strategy) throws IOException {
+        byte[] bytes = getRecentEntry(source);
+        Integer remaining = pendingAliases.get(source);
+        if (remaining != null) {
+            if (remaining > 1) {
+                pendingAliases.put(source, remaining - 1);
+            } else {
+                pendingAliases.remove(source);
+                aliasSources.remove(source);
+            }
+        }
+        writeFile(target, bytes);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            recentEntries.clear();
+            aliasSources.clear();
+            zip.close();
+        }
+    }
+
+    private synchronized void writeFile(String path, byte[] bytes) throws IOException {
+        if (closed) {
+            throw new IOException("Cannot write " + path + ", the archive is closed");
+        }
+        writeDirectories(path);
+        writeEntry(path, bytes);
+        if (pendingAliases.containsKey(path)) {
+            aliasSources.put(path, bytes);
+        }
+        if (bytes.length <= cacheSize) {
+            byte[] replaced = recentEntries.put(path, bytes);
+            recentEntriesSize += bytes.length - (replaced == null ? 0 : replaced.length);
+            Iterator<byte[]> eldest = recentEntries.values().iterator();
+            while (recentEntriesSize > cacheSize) {
+                recentEntriesSize -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Writes the entries of the parent directories that were not written yet, like a directory tree would list them
+     */
+    private void writeDirectories(String path) throws IOException {
+        int index = path.indexOf('/');
+        while (index > 0) {
+            String directory = path.substring(0, index + 1);
+            if (!entries.contains(directory)) {
+                writeEntry(directory, null);
+            }
+            index = path.indexOf('/', index + 1);
+        }
+    }
+
+    private void writeEntry(String name, byte[] bytes) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        // All entries share the same time, so archives of the same content only differ by it
+        entry.setTime(time);
+        zip.putNextEntry(entry);
+        if (bytes != null) {
+            zip.write(bytes);
+        }
+        zip.closeEntry();
+        entries.add(name);
+    }
+
+    private byte[] getRecentEntry(String path) throws IOException {
+        byte[] bytes = aliasSources.get(path);
+        if (bytes == null) {
+            bytes = recentEntries.get(path);
+        }
+        if (bytes == null) {
+            if (entries.contains(path)) {
+                throw new IOException(path + " was written to the archive but is no longer in the cache of recent entries");
+            }
+            throw new NoSuchFileException(path);
+        }
+        return bytes;
+    }
+}
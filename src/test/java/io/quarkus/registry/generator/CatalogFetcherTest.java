@@ -0,0 +1,209 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.ExtensionCatalog;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.config.json.RegistriesConfigMapperHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.quarkus.registry.generator.RegistryGeneratorTest.extension;
+import static io.quarkus.registry.generator.RegistryGeneratorTest.platformCatalog;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogFetcherTest {
+
+    @Test
+    void should_fetch_from_file_repository(@TempDir Path repository) throws Exception {
+        List<ArtifactCoords> catalogs = List.of(
+                deployCatalog(repository, "2.2.0.Final"),
+                deployCatalog(repository, "2.1.1.Final"),
+                deployCatalog(repository, "2.0.3.Final"));
+        ArtifactCoords prettytime = deployExtension(repository, "io.quarkiverse.prettytime", "quarkus-prettytime",
+                "0.1.1");
+
+        try (CatalogFetcher fetcher = new CatalogFetcher(repository.toUri(), null, 2)) {
+            assertThat(fetcher.fetchExtensionCatalogs(catalogs).stream()
+                    .map(ExtensionCatalog::getQuarkusCoreVersion)
+                    .collect(Collectors.toList()))
+                    .containsExactly("2.2.0.Final", "2.1.1.Final", "2.0.3.Final");
+            Extension extension = fetcher.fetchExtension(prettytime);
+            assertThat(extension.getArtifact()).isEqualTo(prettytime);
+            assertThat(extension.getName()).isEqualTo("quarkus-prettytime");
+            IOException failure = null;
+            try {
+                fetcher.fetchExtensionCatalog(
+                        new ArtifactCoords("io.quarkus.platform", "quarkus-bom-quarkus-platform-descriptor",
+                                "9.9.9", "json", "9.9.9"));
+            } catch (IOException e) {
+                failure = e;
+            }
+            assertThat(failure).isInstanceOf(NoSuchFileException.class);
+        }
+    }
+
+    @Test
+    void should_revalidate_cached_files(@TempDir Path tempDir) throws Exception {
+        Path repository = tempDir.resolve("repository");
+        ArtifactCoords catalog = deployCatalog(repository, "2.1.1.Final");
+        String path = "/maven2/io/quarkus/platform/quarkus-bom-quarkus-platform-descriptor/2.1.1.Final/"
+                + "quarkus-bom-quarkus-platform-descriptor-2.1.1.Final-2.1.1.Final.json";
+        byte[] content = Files.readAllBytes(repository.resolve(path.substring("/maven2/".length())));
+        AtomicInteger downloads = new AtomicInteger();
+        AtomicInteger notModified = new AtomicInteger();
+        HttpServer server = serve(path, content, downloads, notModified);
+        URI uri = uri(server);
+        Path cacheDir = tempDir.resolve("cache");
+        try {
+            try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+                assertThat(fetcher.fetchExtensionCatalog(catalog).getQuarkusCoreVersion()).isEqualTo("2.1.1.Final");
+            }
+            try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+                assertThat(fetcher.fetchExtensionCatalog(catalog).getQuarkusCoreVersion()).isEqualTo("2.1.1.Final");
+            }
+            assertThat(downloads.get()).isEqualTo(1);
+            assertThat(notModified.get()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+
+        // The repository cannot be reached anymore, the cached file is used
+        try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+            assertThat(fetcher.fetchExtensionCatalog(catalog).getQuarkusCoreVersion()).isEqualTo("2.1.1.Final");
+        }
+    }
+
+    @Test
+    void should_fetch_again_when_cache_is_corrupted(@TempDir Path tempDir) throws Exception {
+        Path repository = tempDir.resolve("repository");
+        ArtifactCoords catalog = deployCatalog(repository, "2.1.1.Final");
+        String path = "/maven2/io/quarkus/platform/quarkus-bom-quarkus-platform-descriptor/2.1.1.Final/"
+                + "quarkus-bom-quarkus-platform-descriptor-2.1.1.Final-2.1.1.Final.json";
+        byte[] content = Files.readAllBytes(repository.resolve(path.substring("/maven2/".length())));
+        String sha1 = HashUtil.sha1(content);
+        AtomicInteger downloads = new AtomicInteger();
+        AtomicInteger notModified = new AtomicInteger();
+        HttpServer server = serve(path, content, downloads, notModified);
+        URI uri = uri(server);
+        Path cacheDir = tempDir.resolve("cache");
+        Path object = cacheDir.resolve("objects").resolve(sha1.substring(0, 2)).resolve(sha1);
+        Path ref = cacheDir.resolve("refs").resolve(HashUtil.sha1(uri.resolve(path).toString()));
+        try {
+            try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+                fetcher.fetchExtensionCatalog(catalog);
+            }
+            assertThat(object).exists();
+            assertThat(ref).exists();
+
+            // A corrupted object is not revalidated, it is downloaded and stored again
+            Files.writeString(object, "{}");
+            try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+                assertThat(fetcher.fetchExtensionCatalog(catalog).getQuarkusCoreVersion()).isEqualTo("2.1.1.Final");
+            }
+            assertThat(downloads.get()).isEqualTo(2);
+            assertThat(object).hasBinaryContent(content);
+
+            // So is the object of a malformed reference
+            Files.writeString(ref, "sha1=a\n");
+            try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+                assertThat(fetcher.fetchExtensionCatalog(catalog).getQuarkusCoreVersion()).isEqualTo("2.1.1.Final");
+            }
+            assertThat(downloads.get()).isEqualTo(3);
+            assertThat(notModified.get()).isEqualTo(0);
+        } finally {
+            server.stop(0);
+        }
+
+        // A corrupted object is not used offline either
+        Files.writeString(object, "{}");
+        IOException failure = null;
+        try (CatalogFetcher fetcher = new CatalogFetcher(uri, cacheDir, 2)) {
+            fetcher.fetchExtensionCatalog(catalog);
+        } catch (IOException e) {
+            failure = e;
+        }
+        assertThat(failure).isNotNull();
+    }
+
+    /**
+     * Serves the given file with an ETag, counting the downloads and the revalidated requests
+     */
+    private static HttpServer serve(String path, byte[] content, AtomicInteger downloads, AtomicInteger notModified)
+            throws IOException {
+        String etag = '"' + HashUtil.sha1(content) + '"';
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/maven2/", exchange -> {
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    downloads.incrementAndGet();
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    exchange.sendResponseHeaders(200, content.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(content);
+                    }
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static URI uri(HttpServer server) {
+        return URI.create("http://" + server.getAddress().getHostString() + ':' + server.getAddress().getPort()
+                + "/maven2");
+    }
+
+    private static ArtifactCoords deployCatalog(Path repository, String version) throws IOException {
+        ExtensionCatalog catalog = platformCatalog(version);
+        ArtifactCoords coords = ArtifactCoords.fromString(catalog.getId());
+        Path file = file(repository, coords);
+        Files.createDirectories(file.getParent());
+        JsonCatalogMapperHelper.serialize(catalog, file);
+        return coords;
+    }
+
+    private static ArtifactCoords deployExtension(Path repository, String groupId, String artifactId, String version)
+            throws IOException {
+        Extension extension = extension(groupId, artifactId, version);
+        Path file = file(repository, extension.getArtifact());
+        Files.createDirectories(file.getParent());
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("META-INF/quarkus-extension.yaml"));
+            out.write(RegistriesConfigMapperHelper.yamlMapper().writeValueAsBytes(extension));
+            out.closeEntry();
+        }
+        return extension.getArtifact();
+    }
+
+    private static Path file(Path repository, ArtifactCoords coords) {
+        String classifier = coords.getClassifier() == null || coords.getClassifier().isEmpty() ? ""
+                : '-' + coords.getClassifier();
+        return repository.resolve(coords.getGroupId().replace('.', '/'))
+                .resolve(coords.getArtifactId())
+                .resolve(coords.getVersion())
+                .resolve(coords.getArtifactId() + '-' + coords.getVersion() + classifier + '.' + coords.getType());
+    }
+}
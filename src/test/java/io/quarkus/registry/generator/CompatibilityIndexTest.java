@@ -0,0 +1,50 @@
+package io.quarkus.registry.generator;
+
+import java.util.List;
+import java.util.Map;
+
+import io.quarkus.maven.ArtifactCoords;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.json.JsonExtension;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompatibilityIndexTest {
+
+    private static final List<String> QUARKUS_VERSIONS = List.of("2.2.0.CR1", "1.13.7.Final", "2.0.3.Final",
+            "2.1.1.Final", "3.0.0.Final");
+
+    @Test
+    void should_list_extensions_from_built_with_version_up_to_next_major() {
+        Extension legacy = extension("quarkus-legacy", "1.13.0.Final");
+        Extension current = extension("quarkus-current", "2.1.0.Final");
+        Extension next = extension("quarkus-next", "3.0.0.Final");
+        CompatibilityIndex index = CompatibilityIndex.of(List.of(legacy, current, next), QUARKUS_VERSIONS);
+        assertThat(index.getExtensions("1.13.7.Final")).containsExactly(legacy);
+        assertThat(index.getExtensions("2.0.3.Final")).isEmpty();
+        assertThat(index.getExtensions("2.1.1.Final")).containsExactly(current);
+        assertThat(index.getExtensions("2.2.0.CR1")).containsExactly(current);
+        assertThat(index.getExtensions("3.0.0.Final")).containsExactly(next);
+    }
+
+    @Test
+    void should_list_extensions_without_built_with_version_everywhere() {
+        Extension unknown = extension("quarkus-unknown", null);
+        Extension current = extension("quarkus-current", "2.0.0.Final");
+        CompatibilityIndex index = CompatibilityIndex.of(List.of(unknown, current), QUARKUS_VERSIONS);
+        assertThat(index.getExtensions("1.13.7.Final")).containsExactly(unknown);
+        assertThat(index.getExtensions("2.1.1.Final")).containsExactly(unknown, current);
+        assertThat(index.getExtensions("2.2.0.CR1")).isSameAs(index.getExtensions("2.0.3.Final"));
+    }
+
+    private static Extension extension(String artifactId, String builtWith) {
+        JsonExtension extension = new JsonExtension();
+        extension.setArtifact(ArtifactCoords.jar("io.quarkiverse", artifactId, "1.0.0"));
+        extension.setName(artifactId);
+        if (builtWith != null) {
+            extension.setMetadata(Map.of(CompatibilityIndex.BUILT_WITH_QUARKUS_CORE, builtWith));
+        }
+        return extension;
+    }
+}
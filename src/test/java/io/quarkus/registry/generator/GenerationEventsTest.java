@@ -0,0 +1,112 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.quarkus.registry.generator.RegistryGeneratorTest.extension;
+import static io.quarkus.registry.generator.RegistryGeneratorTest.platformCatalog;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationEventsTest {
+
+    @Test
+    void should_derive_artifact_from_path() {
+        assertThat(GenerationEvents.artifact("io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/maven-metadata.xml"))
+                .isEqualTo("io.quarkus.registry:quarkus-platforms:1.0-SNAPSHOT");
+        assertThat(GenerationEvents.artifact(".meta/repository-metadata.xml")).isNull();
+        assertThat(GenerationEvents.artifact("quarkus-platforms/1.0-SNAPSHOT/maven-metadata.xml")).isNull();
+    }
+
+    @Test
+    void should_record_generation_events(@TempDir Path tempDir) throws Exception {
+        Path dump = tempDir.resolve("generation.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.quarkus.registry.generator.Stage");
+            recording.enable("io.quarkus.registry.generator.Serialize");
+            recording.enable("io.quarkus.registry.generator.Write");
+            recording.start();
+            new RegistryGenerator(RegistryOutput.inMemory())
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events(events, "Stage").count()).isEqualTo(GenerationStage.values().length);
+        assertThat(events(events, "Serialize").map(e -> e.getString("quarkusVersion")))
+                .contains("2.1.1.Final");
+        assertThat(events(events, "Write").map(e -> e.getString("operation")))
+                .contains("write", "alias copy");
+    }
+
+    @Test
+    void should_record_writes_of_writer_threads(@TempDir Path tempDir) throws Exception {
+        Path dump = tempDir.resolve("generation.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.quarkus.registry.generator.Write");
+            recording.start();
+            new RegistryGenerator(tempDir.resolve("registry"))
+                    .withWriteBehind(2, 16, SyncMode.NONE)
+                    .add(platformCatalog("2.1.1.Final"))
+                    .generate();
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> writes = events(RecordingFile.readAllEvents(dump), "Write")
+                .collect(Collectors.toList());
+        assertThat(writes).isNotEmpty();
+        // The events measure the actual writes, not the queuing
+        List<String> threads = writes.stream()
+                .map(e -> e.getThread().getJavaName())
+                .filter(name -> !name.startsWith("registry-writer-"))
+                .collect(Collectors.toList());
+        assertThat(threads).isEmpty();
+    }
+
+    @Test
+    void should_forward_sync_to_decorated_output() throws Exception {
+        List<String> synced = new ArrayList<>();
+        InMemoryRegistryOutput memory = RegistryOutput.inMemory();
+        RegistryOutput recording = new RegistryOutput() {
+            @Override
+            public OutputStream newOutputStream(String path) {
+                return memory.newOutputStream(path);
+            }
+
+            @Override
+            public InputStream newInputStream(String path) throws IOException {
+                return memory.newInputStream(path);
+            }
+
+            @Override
+            public boolean exists(String path) {
+                return memory.exists(path);
+            }
+
+            @Override
+            public void sync(Collection<String> paths) {
+                synced.addAll(paths);
+            }
+        };
+        new EventRegistryOutput(recording).sync(List.of("a.json", "b.json"));
+        assertThat(synced).containsExactly("a.json", "b.json");
+    }
+
+    private static Stream<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals("io.quarkus.registry.generator." + name));
+    }
+}
@@ -0,0 +1,117 @@
+package io.quarkus.registry.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.quarkus.registry.catalog.Extension;
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.quarkus.registry.generator.RegistryGeneratorTest.extension;
+import static io.quarkus.registry.generator.RegistryGeneratorTest.platformCatalog;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InputCacheTest {
+
+    @Test
+    void should_read_unchanged_inputs_from_cache(@TempDir Path tempDir) throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        Path platform = tempDir.resolve("platform.json");
+        Path extension = tempDir.resolve("extension.json");
+        JsonCatalogMapperHelper.serialize(platformCatalog("2.1.1.Final"), platform);
+        JsonCatalogMapperHelper.serialize(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"),
+                extension);
+        FileTime lastModified = Files.getLastModifiedTime(platform);
+
+        CatalogInput parsed = new InputCache(cacheDir, Long.MAX_VALUE).read(platform);
+        assertThat(parsed.getPlatformRelease().toString()).isEqualTo(
+                PlatformReleaseInfo.of(null, platformCatalog("2.1.1.Final")).toString());
+        assertThat(new InputCache(cacheDir, Long.MAX_VALUE).read(extension).getExtension().getArtifact())
+                .isEqualTo(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1").getArtifact());
+
+        // Same size and modification time: the cached projection is used without reading the file
+        Files.writeString(platform, Files.readString(platform).replace("2.1.1.Final", "2.1.9.Final"));
+        Files.setLastModifiedTime(platform, lastModified);
+        CatalogInput cached = new InputCache(cacheDir, Long.MAX_VALUE).read(platform);
+        assertThat(cached.getPlatformRelease().getVersion()).isEqualTo("2.1.1.Final");
+        assertThat(cached.getPlatformRelease().getMemberBoms())
+                .isEqualTo(parsed.getPlatformRelease().getMemberBoms());
+
+        // Modified: parsed again
+        Files.setLastModifiedTime(platform, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        assertThat(new InputCache(cacheDir, Long.MAX_VALUE).read(platform).getPlatformRelease().getVersion())
+                .isEqualTo("2.1.9.Final");
+    }
+
+    @Test
+    void should_reuse_cached_input_when_only_modification_time_changed(@TempDir Path tempDir) throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        Path file = tempDir.resolve("extension.json");
+        JsonCatalogMapperHelper.serialize(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"), file);
+        new InputCache(cacheDir, Long.MAX_VALUE).read(file);
+
+        // An entry with the checksum of the file but another projection and modification time, so reusing it is visible
+        Extension cached = extension("io.quarkiverse.cached", "quarkus-cached", "0.1.1");
+        byte[] content = Files.readAllBytes(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis() - 1000;
+        try (OutputStream out = Files.newOutputStream(entry(cacheDir, file));
+                JsonGenerator generator = new SmileFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("format", 1);
+            generator.writeNumberField("size", content.length);
+            generator.writeNumberField("last-modified", lastModified);
+            generator.writeStringField("sha1", HashUtil.sha1(content));
+            generator.writeFieldName("extension");
+            JsonCatalogMapperHelper.mapper().writeValue(generator, cached);
+            generator.writeEndObject();
+        }
+
+        assertThat(new InputCache(cacheDir, Long.MAX_VALUE).read(file).getExtension().getArtifact())
+                .isEqualTo(cached.getArtifact());
+        // Now recorded with the current modification time
+        Files.writeString(file, Files.readString(file).replace("0.1.1", "0.1.2"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified + 1000));
+        assertThat(new InputCache(cacheDir, Long.MAX_VALUE).read(file).getExtension().getArtifact())
+                .isEqualTo(cached.getArtifact());
+    }
+
+    @Test
+    void should_evict_least_recently_used_entries(@TempDir Path tempDir) throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        InputCache cache = new InputCache(cacheDir, Long.MAX_VALUE);
+        List<Path> files = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String version : new String[] { "2.0.3.Final", "2.1.1.Final", "2.2.0.Final" }) {
+            Path file = tempDir.resolve(version + ".json");
+            JsonCatalogMapperHelper.serialize(platformCatalog(version), file);
+            cache.read(file);
+            // Used in this order, regardless of the file system's time resolution
+            Files.setLastModifiedTime(entry(cacheDir, file),
+                    FileTime.fromMillis(now - 3_600_000 + files.size() * 60_000L));
+            files.add(file);
+        }
+        // Reading the least recently used one makes it the most recently used
+        cache.read(files.get(0));
+        long entrySize = 0;
+        for (Path file : files) {
+            entrySize = Math.max(entrySize, Files.size(entry(cacheDir, file)));
+        }
+
+        new InputCache(cacheDir, entrySize).evict();
+        assertThat(entry(cacheDir, files.get(0))).exists();
+        assertThat(entry(cacheDir, files.get(1))).doesNotExist();
+        assertThat(entry(cacheDir, files.get(2))).doesNotExist();
+    }
+
+    private static Path entry(Path cacheDir, Path file) throws IOException {
+        return cacheDir.resolve(HashUtil.sha1(file.toAbsolutePath().normalize().toString()) + ".sml");
+    }
+}
@@ -1,22 +1,56 @@
 package io.quarkus.registry.generator;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import io.quarkus.maven.ArtifactCoords;
 import io.quarkus.registry.catalog.Extension;
 import io.quarkus.registry.catalog.ExtensionCatalog;
+import io.quarkus.registry.catalog.PlatformCatalog;
 import io.quarkus.registry.catalog.PlatformRelease;
 import io.quarkus.registry.catalog.PlatformStream;
 import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import io.quarkus.registry.catalog.json.JsonExtension;
+import io.quarkus.registry.catalog.json.JsonExtensionCatalog;
 import io.quarkus.registry.catalog.json.JsonPlatformCatalog;
 import io.quarkus.registry.catalog.json.JsonPlatformReleaseVersion;
 import io.quarkus.registry.config.RegistryConfig;
 import io.quarkus.registry.config.json.JsonRegistryConfig;
 import io.quarkus.registry.config.json.RegistriesConfigMapperHelper;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.io.TempDir;
 
 import static io.quarkus.registry.generator.MetadataExtractor.extractExtension;
@@ -25,6 +59,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class RegistryGeneratorTest {
 
+    private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("\\d{8}\\.\\d{6}-\\d+");
+
     @Test
     void should_use_custom_settings(@TempDir Path tempDir) throws Exception {
         Path path = new RegistryGenerator(tempDir)
@@ -176,6 +212,708 @@ class RegistryGeneratorTest {
         assertThat(path.resolve(".meta/repository-metadata.xml.sha1")).exists();
     }
 
+    @Test
+    void should_generate_same_content_concurrently(@TempDir Path tempDir) throws Exception {
+        Path sequential = new RegistryGenerator(tempDir.resolve("sequential"))
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Path concurrent;
+        try {
+            concurrent = new RegistryGenerator(tempDir.resolve("concurrent"))
+                    .withExecutor(executor)
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (String file : List.of(".meta/prefixes.txt",
+                ".meta/repository-metadata.xml",
+                "io/quarkus/registry/quarkus-registry-descriptor/1.0-SNAPSHOT/quarkus-registry-descriptor-1.0-SNAPSHOT.json",
+                "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json",
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-2.0.3.Final.json",
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT.json")) {
+            assertThat(concurrent.resolve(file)).hasSameBinaryContentAs(sequential.resolve(file));
+        }
+    }
+
+    @Test
+    void should_generate_each_non_platform_catalog_once(@TempDir Path tempDir) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Path path;
+        try {
+            path = new RegistryGenerator(tempDir)
+                    .withExecutor(executor)
+                    .withParallelism(1)
+                    .add(platformCatalog("2.2.0.CR1"))
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        } finally {
+            executor.shutdownNow();
+        }
+        Path nonPlatformExtensionsRoot = path.resolve("io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT");
+        assertThat(nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT-2.0.3.Final.json")).exists();
+        // Final releases are sorted before CRs, so the latest alias points to the CR
+        assertThat(nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT.json"))
+                .hasSameBinaryContentAs(
+                        nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT-2.2.0.CR1.json"));
+    }
+
+    @Test
+    void should_await_concurrent_stages_when_a_stage_fails_with_an_error(@TempDir Path tempDir) throws Exception {
+        Set<GenerationStage> completed = Collections.synchronizedSet(new HashSet<>());
+        AssertionError error = new AssertionError("Stage failed");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        Error thrown = null;
+        try {
+            new RegistryGenerator(tempDir)
+                    .withExecutor(executor)
+                    .withListener(new GenerationListener() {
+                        @Override
+                        public void stageStarted(GenerationStage stage) {
+                            if (stage == GenerationStage.NON_PLATFORM_EXTENSIONS) {
+                                throw error;
+                            }
+                            try {
+                                // Still running when the caller's stage fails
+                                Thread.sleep(200);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+
+                        @Override
+                        public void stageCompleted(GenerationStage stage, long durationNanos, Throwable failure) {
+                            completed.add(stage);
+                        }
+                    })
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        } catch (Error e) {
+            thrown = e;
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(thrown).isSameAs(error);
+        assertThat(completed).containsExactlyInAnyOrder(GenerationStage.REPOSITORY_METADATA, GenerationStage.CONFIG,
+                GenerationStage.PLATFORMS);
+    }
+
+    @Test
+    void should_generate_equivalent_catalogs_when_extensions_are_serialized_once(@TempDir Path tempDir) throws Exception {
+        Path serializedPerVersion = new RegistryGenerator(tempDir.resolve("per-version"))
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .add(extension("io.quarkiverse.jberet", "quarkus-jberet", "0.0.4"))
+                .generate();
+        Path serializedOnce = new RegistryGenerator(tempDir.resolve("once"))
+                .withExtensionsSerializedOnce(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .add(extension("io.quarkiverse.jberet", "quarkus-jberet", "0.0.4"))
+                .generate();
+        for (String quarkusVersion : List.of("2.0.3.Final", "2.1.1.Final")) {
+            String file = "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-"
+                    + quarkusVersion + ".json";
+            assertThat(JsonCatalogMapperHelper.mapper().readTree(serializedOnce.resolve(file).toFile()))
+                    .isEqualTo(JsonCatalogMapperHelper.mapper().readTree(serializedPerVersion.resolve(file).toFile()));
+            JsonExtensionCatalog catalog = JsonCatalogMapperHelper.deserialize(serializedOnce.resolve(file),
+                    JsonExtensionCatalog.class);
+            assertThat(catalog.getBom()).isEqualTo(ArtifactCoords.pom("io.quarkus.platform", "quarkus-bom", quarkusVersion));
+            assertThat(catalog.getExtensions()).hasSize(2);
+        }
+    }
+
+    @Test
+    void should_link_snapshot_aliases(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir)
+                .withAliasStrategy(AliasStrategy.SYMLINK)
+                .add(platformCatalog("2.0.3.Final"))
+                .generate();
+        Path platformDescriptorRoot = path.resolve("io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT");
+        String version = getMetadataVersion(platformDescriptorRoot.resolve("maven-metadata.xml"));
+        Path alias = platformDescriptorRoot.resolve("quarkus-platforms-1.0-SNAPSHOT.json");
+        if (Files.isSymbolicLink(alias)) {
+            assertThat(Files.readSymbolicLink(alias)).isEqualTo(Path.of(String.format("quarkus-platforms-%s.json", version)));
+        }
+        assertThat(alias).hasSameBinaryContentAs(platformDescriptorRoot.resolve(String.format("quarkus-platforms-%s.json", version)));
+        assertThat(platformDescriptorRoot.resolve("quarkus-platforms-1.0-SNAPSHOT.json.sha1"))
+                .hasSameBinaryContentAs(platformDescriptorRoot.resolve(String.format("quarkus-platforms-%s.json.sha1", version)));
+    }
+
+    @Test
+    void should_only_disable_links_when_unsupported() {
+        assertThat(PathRegistryOutput.isLinkUnsupported(
+                new FileSystemException("a", "b", "Invalid cross-device link"))).isTrue();
+        assertThat(PathRegistryOutput.isLinkUnsupported(
+                new FileSystemException("a", "b", "Operation not permitted"))).isTrue();
+        // The reasons are localized
+        assertThat(PathRegistryOutput.isLinkUnsupported(
+                new FileSystemException("a", "b", "Enlace cruzado entre dispositivos no valido"))).isTrue();
+        assertThat(PathRegistryOutput.isLinkUnsupported(new FileSystemException("a", "b", null))).isTrue();
+        assertThat(PathRegistryOutput.isLinkUnsupported(new AccessDeniedException("a", "b", "Permission denied")))
+                .isFalse();
+        assertThat(PathRegistryOutput.isLinkUnsupported(new FileAlreadyExistsException("a"))).isFalse();
+        assertThat(PathRegistryOutput.isLinkUnsupported(new NoSuchFileException("a"))).isFalse();
+    }
+
+    @Test
+    void should_only_write_changed_artifacts_when_incremental(@TempDir Path tempDir) throws Exception {
+        new RegistryGenerator(tempDir)
+                .withIncremental(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        Path registryDescriptorRoot = tempDir.resolve("io/quarkus/registry/quarkus-registry-descriptor/1.0-SNAPSHOT/");
+        Path nonPlatformExtensionsRoot = tempDir.resolve("io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT");
+        String descriptorVersion = getMetadataVersion(registryDescriptorRoot.resolve("maven-metadata.xml"));
+        Path descriptor = registryDescriptorRoot.resolve(String.format("quarkus-registry-descriptor-%s.json", descriptorVersion));
+        Path nonPlatformCatalog = nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT-2.0.3.Final.json");
+        var descriptorModified = Files.getLastModifiedTime(descriptor);
+        var nonPlatformCatalogModified = Files.getLastModifiedTime(nonPlatformCatalog);
+        assertThat(tempDir.resolve(".meta/generation-manifest.txt")).exists();
+
+        new RegistryGenerator(tempDir)
+                .withIncremental(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        assertThat(getMetadataVersion(registryDescriptorRoot.resolve("maven-metadata.xml"))).isEqualTo(descriptorVersion);
+        assertThat(Files.getLastModifiedTime(descriptor)).isEqualTo(descriptorModified);
+        assertThat(Files.getLastModifiedTime(nonPlatformCatalog)).isEqualTo(nonPlatformCatalogModified);
+        assertThat(nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json")).exists();
+        assertThat(nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT.json"))
+                .hasSameBinaryContentAs(
+                        nonPlatformExtensionsRoot.resolve("quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json"));
+    }
+
+    @Test
+    void should_generate_same_platforms_from_catalog_files(@TempDir Path tempDir) throws Exception {
+        JsonExtensionCatalog catalog = (JsonExtensionCatalog) platformCatalog("2.1.1.Final");
+        catalog.setExtensions(List.of(extension("io.quarkus", "quarkus-resteasy", "2.1.1.Final")));
+        Path catalogJson = tempDir.resolve("catalog.json");
+        JsonCatalogMapperHelper.mapper().writeValue(catalogJson.toFile(), catalog);
+        Path fromObjects = new RegistryGenerator(tempDir.resolve("objects"))
+                .add(catalog)
+                .generate();
+        Path fromFiles = new RegistryGenerator(tempDir.resolve("files"))
+                .add(catalogJson)
+                .generate();
+        String platforms = "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json";
+        assertThat(fromFiles.resolve(platforms)).hasSameBinaryContentAs(fromObjects.resolve(platforms));
+    }
+
+    @Test
+    void should_add_all_catalogs_and_extensions_of_a_directory(@TempDir Path tempDir) throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("input/extensions"));
+        JsonCatalogMapperHelper.serialize(platformCatalog("2.0.3.Final"), tempDir.resolve("input/platform-2.0.3.json"));
+        JsonCatalogMapperHelper.serialize(platformCatalog("2.1.1.Final"), tempDir.resolve("input/platform-2.1.1.json"));
+        JsonCatalogMapperHelper.serialize(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"),
+                input.resolve("prettytime.json"));
+        RegistriesConfigMapperHelper.yamlMapper().writeValue(input.resolve("quarkus-extension.yaml").toFile(),
+                extension("io.quarkiverse.amazonservices", "quarkus-amazon-s3", "1.0.0"));
+        Files.writeString(input.resolve("README.md"), "Not an input");
+
+        Path fromDirectory = new RegistryGenerator(tempDir.resolve("directory"))
+                .withParallelism(4)
+                .addAll(tempDir.resolve("input"))
+                .generate();
+        Path fromObjects = new RegistryGenerator(tempDir.resolve("objects"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .add(extension("io.quarkiverse.amazonservices", "quarkus-amazon-s3", "1.0.0"))
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .generate();
+        assertSameFiles(readFiles(fromDirectory), readFiles(fromObjects));
+    }
+
+    @Test
+    void should_keep_one_instance_of_equal_extensions(@TempDir Path tempDir) throws Exception {
+        RegistryGenerator generator = new RegistryGenerator(tempDir)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.2"));
+        InterningStatistics statistics = generator.getInterningStatistics();
+        assertThat(statistics.getHits()).isPositive();
+        assertThat(statistics.getEstimatedBytesSaved()).isPositive();
+        generator.generate();
+        assertThat(Files.readString(tempDir.resolve(
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json")))
+                .contains("0.1.2");
+    }
+
+    @Test
+    void should_intern_copies_of_extensions() {
+        ExtensionInterner interner = new ExtensionInterner();
+        JsonExtension first = (JsonExtension) extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1");
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("status", "stable");
+        metadata.put("keywords", List.of("time"));
+        first.setMetadata(metadata);
+        JsonExtension second = (JsonExtension) extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.2");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("keywords", List.of("time"));
+        reordered.put("status", "stable");
+        second.setMetadata(reordered);
+
+        Extension internedFirst = interner.intern(first);
+        Extension internedSecond = interner.intern(second);
+        // The added extensions are left untouched and can still be modified
+        assertThat(internedFirst).isNotSameAs(first);
+        assertThat(first.getMetadata()).isSameAs(metadata);
+        metadata.put("unlisted", true);
+        assertThat(internedFirst.getMetadata().containsKey("unlisted")).isFalse();
+        // Equal maps in another order are not shared, so they serialize the same way
+        assertThat(new ArrayList<>(internedSecond.getMetadata().keySet())).containsExactly("keywords", "status");
+    }
+
+    @Test
+    void should_generate_same_files_with_write_behind(@TempDir Path tempDir) throws Exception {
+        Path expected = new RegistryGenerator(tempDir.resolve("direct"))
+                .withCompression(true)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        Path actual = new RegistryGenerator(tempDir.resolve("write-behind"))
+                .withCompression(true)
+                .withWriteBehind(3, 4, SyncMode.STAGE)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        assertSameFiles(readFiles(actual), readFiles(expected));
+    }
+
+    @Test
+    void should_fail_with_first_write_failure(@TempDir Path tempDir) throws Exception {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RegistryOutput failing = failingOutput(tempDir, path -> path.endsWith(".sha1"));
+            RegistryGenerator generator = new RegistryGenerator(failing)
+                    .withWriteBehind(4, 2, SyncMode.NONE)
+                    .add(platformCatalog("2.1.1.Final"));
+            try {
+                generator.generate();
+            } catch (IOException e) {
+                messages.add(e.getMessage());
+            }
+        }
+        assertThat(messages).hasSize(3);
+        assertThat(new HashSet<>(messages)).hasSize(1);
+    }
+
+    @Test
+    void should_reject_sync_mode_without_writer_threads(@TempDir Path tempDir) {
+        IllegalArgumentException failure = null;
+        try {
+            new RegistryGenerator(tempDir).withWriteBehind(0, 16, SyncMode.FILE);
+        } catch (IllegalArgumentException e) {
+            failure = e;
+        }
+        assertThat(failure).isNotNull();
+        new RegistryGenerator(tempDir).withWriteBehind(0, 0, SyncMode.NONE);
+    }
+
+    @Test
+    void should_fail_with_first_queued_failure_of_a_stage(@TempDir Path tempDir) throws Exception {
+        String descriptorDir = "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/";
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Every file of the platforms stage fails, on several writers
+            RegistryGenerator generator = new RegistryGenerator(
+                    failingOutput(tempDir.resolve(String.valueOf(i)), path -> path.startsWith(descriptorDir)))
+                    .withWriteBehind(4, 16, SyncMode.NONE)
+                    .add(platformCatalog("2.1.1.Final"));
+            try {
+                generator.generate();
+            } catch (IOException e) {
+                messages.add(e.getMessage());
+            }
+        }
+        assertThat(messages).hasSize(5);
+        assertThat(new HashSet<>(messages)).containsExactly("Cannot write " + descriptorDir + "maven-metadata.xml");
+    }
+
+    @Test
+    void should_report_write_behind_failure_of_concurrent_stages(@TempDir Path tempDir) throws Exception {
+        RegistryOutput failing = failingOutput(tempDir, path -> true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        IOException failure = null;
+        try {
+            new RegistryGenerator(failing)
+                    .withExecutor(executor)
+                    .withWriteBehind(2, 2, SyncMode.NONE)
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(failure).isNotNull();
+        assertThat(failure.getMessage()).startsWith("Cannot write ");
+    }
+
+    @Test
+    void should_write_compressed_copies(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir)
+                .withCompression(true)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        for (String file : List.of(".meta/repository-metadata.xml",
+                "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/maven-metadata.xml",
+                "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json",
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json")) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(path.resolve(file + ".gz")))) {
+                assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(path.resolve(file)));
+            }
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void should_compress_with_single_thread_executor(@TempDir Path tempDir) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Path path = new RegistryGenerator(tempDir)
+                    .withExecutor(executor)
+                    .withParallelism(1)
+                    .withCompression(true)
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(platformCatalog("2.2.0.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+            String file = "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json";
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(path.resolve(file + ".gz")))) {
+                assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(path.resolve(file)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_generate_same_files_in_memory(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        InMemoryRegistryOutput output = RegistryOutput.inMemory();
+        assertThat(new RegistryGenerator(output)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate()).isNull();
+        Map<String, byte[]> files = new TreeMap<>();
+        for (String file : output.getPaths()) {
+            files.put(withoutTimestamp(file), output.getContent(file));
+        }
+        assertSameFiles(files, readFiles(path));
+    }
+
+    @Test
+    void should_generate_to_zip_file_system(@TempDir Path tempDir) throws Exception {
+        Path zip = tempDir.resolve("registry.zip");
+        try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), Map.of("create", "true"))) {
+            new RegistryGenerator(RegistryOutput.fileSystem(fileSystem))
+                    .withAliasStrategy(AliasStrategy.HARDLINK)
+                    .add(platformCatalog("2.1.1.Final"))
+                    .generate();
+            Path platforms = fileSystem.getPath(
+                    "/io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json");
+            PlatformCatalog catalog = JsonCatalogMapperHelper.deserialize(platforms, JsonPlatformCatalog.class);
+            assertThat(catalog.getPlatforms()).hasSize(1);
+        }
+    }
+
+    @Test
+    void should_stream_files_to_zip_archive(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir.resolve("directory"))
+                .withCompression(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        Path zip = tempDir.resolve("registry.zip");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (ZipRegistryOutput output = RegistryOutput.zip(Files.newOutputStream(zip))) {
+            new RegistryGenerator(output)
+                    .withExecutor(executor)
+                    .withCompression(true)
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        } finally {
+            executor.shutdownNow();
+        }
+        Map<String, byte[]> files = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (!entry.isDirectory()) {
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        files.put(withoutTimestamp(entry.getName()), in.readAllBytes());
+                    }
+                }
+            }
+        }
+        assertSameFiles(files, readFiles(path));
+    }
+
+    @Test
+    void should_write_zip_aliases_of_files_larger_than_cache(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir.resolve("directory"))
+                .withCompression(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        Path zip = tempDir.resolve("registry.zip");
+        // Smaller than every file, nothing is kept in the cache of recent entries
+        try (ZipRegistryOutput output = RegistryOutput.zip(Files.newOutputStream(zip), 1)) {
+            new RegistryGenerator(output)
+                    .withCompression(true)
+                    .add(platformCatalog("2.0.3.Final"))
+                    .add(platformCatalog("2.1.1.Final"))
+                    .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                    .generate();
+        }
+        Map<String, byte[]> files = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (!entry.isDirectory()) {
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        files.put(withoutTimestamp(entry.getName()), in.readAllBytes());
+                    }
+                }
+            }
+        }
+        assertSameFiles(files, readFiles(path));
+    }
+
+    @Test
+    void should_publish_by_renaming_staging_directory(@TempDir Path tempDir) throws Exception {
+        Path registry = tempDir.resolve("registry");
+        new RegistryGenerator(registry)
+                .withPublishMode(PublishMode.RENAME)
+                .withIncremental(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        Path descriptor = registry.resolve(
+                "io/quarkus/registry/quarkus-registry-descriptor/1.0-SNAPSHOT/quarkus-registry-descriptor-1.0-SNAPSHOT.json");
+        var descriptorModified = Files.getLastModifiedTime(descriptor);
+        Path platforms = registry.resolve(
+                "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json");
+        byte[] previousPlatforms = Files.readAllBytes(platforms);
+        new RegistryGenerator(registry)
+                .withPublishMode(PublishMode.RENAME)
+                .withIncremental(true)
+                .add(platformCatalog("2.0.3.Final"))
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        try (Stream<Path> siblings = Files.list(tempDir)) {
+            assertThat(siblings).containsExactly(registry);
+        }
+        // Unchanged files are linked from the previous generation
+        assertThat(Files.getLastModifiedTime(descriptor)).isEqualTo(descriptorModified);
+        assertThat(Files.readAllBytes(platforms)).isNotEqualTo(previousPlatforms);
+    }
+
+    @Test
+    void should_restore_live_directory_when_rename_fails(@TempDir Path tempDir) throws Exception {
+        Path registry = tempDir.resolve("registry");
+        Files.createDirectories(registry);
+        Files.writeString(registry.resolve("file.txt"), "live");
+        DirectoryPublisher publisher = new DirectoryPublisher(registry, PublishMode.RENAME);
+        IOException failure = null;
+        try {
+            publisher.publish(tempDir.resolve("missing"));
+        } catch (IOException e) {
+            failure = e;
+        }
+        assertThat(failure).isNotNull();
+        assertThat(Files.readString(registry.resolve("file.txt"))).isEqualTo("live");
+    }
+
+    @Test
+    void should_publish_by_switching_symbolic_link(@TempDir Path tempDir) throws Exception {
+        Path registry = tempDir.resolve("registry");
+        for (String version : List.of("2.0.3.Final", "2.1.1.Final", "2.2.0.CR1")) {
+            new RegistryGenerator(registry)
+                    .withPublishMode(PublishMode.SYMLINK)
+                    .add(platformCatalog(version))
+                    .generate();
+            // Generations are named after the current time
+            Thread.sleep(2);
+        }
+        assertThat(registry).isSymbolicLink();
+        PlatformCatalog catalog = JsonCatalogMapperHelper.deserialize(
+                registry.resolve("io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json"),
+                JsonPlatformCatalog.class);
+        assertThat(catalog.getRecommendedPlatform().getStreams())
+                .extracting(PlatformStream::getId)
+                .containsExactly("2.2");
+        try (Stream<Path> siblings = Files.list(tempDir)) {
+            // The current and the previous generations
+            assertThat(siblings.filter(sibling -> !sibling.equals(registry))).hasSize(2);
+        }
+    }
+
+    @Test
+    void should_write_configured_checksums(@TempDir Path tempDir) throws Exception {
+        Path path = new RegistryGenerator(tempDir)
+                .withChecksums(ChecksumAlgorithm.MD5, ChecksumAlgorithm.SHA256, ChecksumAlgorithm.SHA512)
+                .add(platformCatalog("2.1.1.Final"))
+                .generate();
+        Path platforms = path.resolve(
+                "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json");
+        byte[] content = Files.readAllBytes(platforms);
+        for (ChecksumAlgorithm checksum : List.of(ChecksumAlgorithm.MD5, ChecksumAlgorithm.SHA256,
+                ChecksumAlgorithm.SHA512)) {
+            String expected = Hex.encodeHexString(MessageDigest.getInstance(checksum.getAlgorithm()).digest(content));
+            assertThat(platforms.resolveSibling(platforms.getFileName() + checksum.getExtension())).hasContent(expected);
+        }
+        assertThat(platforms.resolveSibling(platforms.getFileName() + ".sha1")).doesNotExist();
+    }
+
+    @Test
+    void should_report_written_and_skipped_artifacts(@TempDir Path tempDir) throws Exception {
+        GenerationStatistics first = new GenerationStatistics();
+        List<String> written = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        GenerationListener paths = new GenerationListener() {
+            @Override
+            public void artifactWritten(String path, long bytes, long serializeNanos, long hashNanos,
+                    long writeNanos) {
+                written.add(path);
+            }
+
+            @Override
+            public void artifactSkipped(String path) {
+                skipped.add(path);
+            }
+        };
+        new RegistryGenerator(tempDir)
+                .withIncremental(true)
+                .withListener(first)
+                .withListener(paths)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        assertThat(first.getGenerations()).isEqualTo(1);
+        assertThat(first.getArtifactsWritten()).isPositive();
+        assertThat(first.getArtifactsSkipped()).isZero();
+        assertThat(first.getBytesWritten()).isPositive();
+
+        GenerationStatistics second = new GenerationStatistics();
+        new RegistryGenerator(tempDir)
+                .withIncremental(true)
+                .withListener(second)
+                .withListener(paths)
+                .add(platformCatalog("2.1.1.Final"))
+                .add(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"))
+                .generate();
+        assertThat(second.getArtifactsWritten()).isZero();
+        assertThat(second.getArtifactsSkipped()).isPositive();
+        // Each file is reported once per generation, written or skipped
+        assertThat(written.stream().filter(".meta/prefixes.txt"::equals).count()).isEqualTo(1);
+        assertThat(skipped.stream().filter(".meta/prefixes.txt"::equals).count()).isEqualTo(1);
+    }
+
+    /**
+     * @return an output writing under the given directory, failing to open the files matching the given predicate
+     */
+    private static RegistryOutput failingOutput(Path root, Predicate<String> failing) {
+        RegistryOutput delegate = RegistryOutput.directory(root);
+        return new RegistryOutput() {
+
+            @Override
+            public OutputStream newOutputStream(String path) throws IOException {
+                if (failing.test(path)) {
+                    throw new IOException("Cannot write " + path);
+                }
+                return delegate.newOutputStream(path);
+            }
+
+            @Override
+            public InputStream newInputStream(String path) throws IOException {
+                return delegate.newInputStream(path);
+            }
+
+            @Override
+            public boolean exists(String path) {
+                return delegate.exists(path);
+            }
+        };
+    }
+
+    static ExtensionCatalog platformCatalog(String version) {
+        JsonExtensionCatalog catalog = new JsonExtensionCatalog();
+        catalog.setId(new ArtifactCoords("io.quarkus.platform", "quarkus-bom-quarkus-platform-descriptor", version, "json",
+                version).toString());
+        catalog.setBom(ArtifactCoords.pom("io.quarkus.platform", "quarkus-bom", version));
+        catalog.setQuarkusCoreVersion(version);
+        catalog.setUpstreamQuarkusCoreVersion(version);
+        catalog.setPlatform(true);
+        catalog.setMetadata(Map.of("platform-release", Map.of(
+                "platform-key", "io.quarkus.platform",
+                "stream", Version.toStreamId(version),
+                "version", version,
+                "members", List.of("io.quarkus.platform:quarkus-bom::pom:" + version))));
+        return catalog;
+    }
+
+    static Extension extension(String groupId, String artifactId, String version) {
+        JsonExtension extension = new JsonExtension();
+        extension.setArtifact(ArtifactCoords.jar(groupId, artifactId, version));
+        extension.setName(artifactId);
+        return extension;
+    }
+
+    /**
+     * Reads the generated files by path, with the snapshot timestamps removed
+     */
+    private static Map<String, byte[]> readFiles(Path root) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path file : walk.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.put(withoutTimestamp(root.relativize(file).toString().replace(File.separatorChar, '/')),
+                        Files.readAllBytes(file));
+            }
+        }
+        return files;
+    }
+
+    private static String withoutTimestamp(String file) {
+        return SNAPSHOT_TIMESTAMP.matcher(file).replaceAll("TIMESTAMP");
+    }
+
+    /**
+     * Generators started at different times only differ by the timestamps of the maven-metadata.xml files
+     */
+    private static void assertSameFiles(Map<String, byte[]> actual, Map<String, byte[]> expected) {
+        assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+        expected.forEach((file, content) -> {
+            if (!file.contains("maven-metadata.xml")) {
+                assertThat(actual.get(file)).as(file).isEqualTo(content);
+            }
+        });
+    }
+
     private String getMetadataVersion(Path metadataPath) throws IOException, XmlPullParserException {
         return new MetadataXpp3Reader().read(Files.newBufferedReader(metadataPath)).getVersioning().getSnapshotVersions().get(0)
                 .getVersion();
@@ -0,0 +1,58 @@
+package io.quarkus.registry.generator;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static io.quarkus.registry.generator.RegistryGeneratorTest.platformCatalog;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistryServerTest {
+
+    private static final String PLATFORMS = "io/quarkus/registry/quarkus-platforms/1.0-SNAPSHOT/quarkus-platforms-1.0-SNAPSHOT.json";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void should_serve_files_with_etag_and_revalidate() throws Exception {
+        InMemoryRegistryOutput registry = RegistryOutput.inMemory();
+        new RegistryGenerator(registry).add(platformCatalog("2.1.1.Final")).generate();
+        try (RegistryServer server = RegistryServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), null)) {
+            assertThat(get(server, PLATFORMS, null).statusCode()).isEqualTo(404);
+            server.publish(registry);
+
+            HttpResponse<byte[]> response = get(server, PLATFORMS, null);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(registry.getContent(PLATFORMS));
+            String sha1 = new String(registry.getContent(PLATFORMS + ".sha1"), StandardCharsets.UTF_8);
+            String etag = response.headers().firstValue("ETag").orElseThrow();
+            assertThat(etag).isEqualTo('"' + sha1 + '"');
+            assertThat(get(server, PLATFORMS, etag).statusCode()).isEqualTo(304);
+
+            InMemoryRegistryOutput updated = RegistryOutput.inMemory();
+            new RegistryGenerator(updated).add(platformCatalog("2.1.1.Final")).add(platformCatalog("2.2.0.Final"))
+                    .generate();
+            server.publish(updated);
+            response = get(server, PLATFORMS, etag);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(updated.getContent(PLATFORMS));
+        }
+    }
+
+    private HttpResponse<byte[]> get(RegistryServer server, String path, String etag) throws Exception {
+        InetSocketAddress address = server.getAddress();
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                new URI("http", null, address.getHostString(), address.getPort(), "/" + path, null, null));
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
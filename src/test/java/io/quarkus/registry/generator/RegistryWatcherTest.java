@@ -0,0 +1,100 @@
+package io.quarkus.registry.generator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.quarkus.registry.catalog.json.JsonCatalogMapperHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.quarkus.registry.generator.RegistryGeneratorTest.extension;
+import static io.quarkus.registry.generator.RegistryGeneratorTest.platformCatalog;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistryWatcherTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    void should_regenerate_when_inputs_change(@TempDir Path tempDir) throws Exception {
+        Path inputDir = Files.createDirectory(tempDir.resolve("input"));
+        Path outputDir = tempDir.resolve("output");
+        JsonCatalogMapperHelper.serialize(platformCatalog("2.1.1.Final"), inputDir.resolve("platform-2.1.1.json"));
+        Path nonPlatformCatalog = outputDir.resolve(
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json");
+
+        try (RegistryWatcher watcher = new RegistryWatcher(inputDir, () -> new RegistryGenerator(outputDir))
+                .withDebounce(Duration.ofMillis(100))) {
+            CompletableFuture<Void> running = CompletableFuture.runAsync(watcher::run);
+            awaitContent(nonPlatformCatalog, "2.1.1.Final");
+
+            JsonCatalogMapperHelper.serialize(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"),
+                    inputDir.resolve("prettytime.json"));
+            awaitContent(nonPlatformCatalog, "quarkus-prettytime");
+
+            // Subdirectories are watched too, including the ones created afterwards
+            Path nested = Files.createDirectories(inputDir.resolve("quarkiverse/hibernate"));
+            JsonCatalogMapperHelper.serialize(
+                    extension("io.quarkiverse.hibernate", "quarkus-hibernate-types", "0.2.0"),
+                    nested.resolve("hibernate-types.json"));
+            awaitContent(nonPlatformCatalog, "quarkus-hibernate-types");
+
+            watcher.close();
+            running.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void should_keep_watching_after_a_failed_generation(@TempDir Path tempDir) throws Exception {
+        Path inputDir = Files.createDirectory(tempDir.resolve("input"));
+        Path outputDir = tempDir.resolve("output");
+        JsonCatalogMapperHelper.serialize(platformCatalog("2.1.1.Final"), inputDir.resolve("platform-2.1.1.json"));
+        Path nonPlatformCatalog = outputDir.resolve(
+                "io/quarkus/registry/quarkus-non-platform-extensions/1.0-SNAPSHOT/quarkus-non-platform-extensions-1.0-SNAPSHOT-2.1.1.Final.json");
+        IllegalStateException failure = new IllegalStateException("Generation failed");
+        AtomicInteger generations = new AtomicInteger();
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+
+        try (RegistryWatcher watcher = new RegistryWatcher(inputDir, () -> {
+            if (generations.getAndIncrement() == 0) {
+                throw failure;
+            }
+            return new RegistryGenerator(outputDir);
+        }).withDebounce(Duration.ofMillis(100)).withGenerationErrorHandler(failures::add)) {
+            CompletableFuture<Void> running = CompletableFuture.runAsync(watcher::run);
+            awaitFailures(failures, 1);
+            assertThat(failures).containsExactly(failure);
+            assertThat(running.isDone()).isFalse();
+
+            JsonCatalogMapperHelper.serialize(extension("io.quarkiverse.prettytime", "quarkus-prettytime", "0.1.1"),
+                    inputDir.resolve("prettytime.json"));
+            awaitContent(nonPlatformCatalog, "quarkus-prettytime");
+            assertThat(failures).containsExactly(failure);
+
+            watcher.close();
+            running.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void awaitFailures(List<Exception> failures, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (failures.size() < expected) {
+            assertThat(System.currentTimeMillis()).as("Timed out waiting for failure " + expected).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static void awaitContent(Path file, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!Files.exists(file) || !Files.readString(file).contains(expected)) {
+            assertThat(System.currentTimeMillis()).as("Timed out waiting for " + file).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
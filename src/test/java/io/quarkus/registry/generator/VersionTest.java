@@ -0,0 +1,42 @@
+package io.quarkus.registry.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionTest {
+
+    @Test
+    void should_convert_to_sortable() {
+        assertThat(Version.toSortable("1.2.3.Final")).isEqualTo("00001.00002.00003.Final");
+        assertThat(Version.toSortable("2.2")).isEqualTo("00002.00002.00000");
+        assertThat(Version.toSortable("123456.0.1")).isEqualTo("123456.00000.00001");
+    }
+
+    @Test
+    void should_convert_to_stream_id() {
+        assertThat(Version.toStreamId("2.1.1.Final")).isEqualTo("2.1");
+    }
+
+    @Test
+    void should_order_versions_from_newest() {
+        List<String> versions = new ArrayList<>(List.of("2.0.3.Final", "2.2.0.CR1", "2.1.1.Final", "2.2.0.Final"));
+        versions.sort(Version.VERSION_COMPARATOR);
+        assertThat(versions).containsExactly("2.2.0.Final", "2.2.0.CR1", "2.1.1.Final", "2.0.3.Final");
+    }
+
+    @Test
+    void should_order_final_before_candidate_releases() {
+        List<String> versions = new ArrayList<>(List.of("2.2.0.CR1", "2.0.3.Final", "2.1.0.CR1", "2.1.1.Final"));
+        versions.sort(Version.QUALIFIER_REVERSED_COMPARATOR);
+        assertThat(versions).containsExactly("2.0.3.Final", "2.1.1.Final", "2.2.0.CR1", "2.1.0.CR1");
+    }
+
+    @Test
+    void should_intern_version_keys() {
+        assertThat(VersionKey.of("2.1.1.Final")).isSameAs(VersionKey.of("2.1.1.Final"));
+    }
+}